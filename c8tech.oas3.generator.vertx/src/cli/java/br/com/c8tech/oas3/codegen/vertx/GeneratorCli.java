@@ -0,0 +1,71 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.openapitools.codegen.OpenAPIGenerator;
+
+/**
+ * The entry point of the command line built by the 'cli' profile.
+ * <p>
+ * The specification given to the {@code generate} command ({@code -i} or
+ * {@code --input-spec}) is first bundled by {@link SpecLoader}, so its
+ * documents are fetched in parallel and taken from the cache when unchanged.
+ * The bundle is then handed to the openapi-generator command line, which runs
+ * as usual. The other commands are passed through untouched.
+ * <p>
+ * The cache directory is {@code ~/.cache/oas3-vertx/specs} unless set with
+ * the {@value #CACHE_PROPERTY} system property.
+ */
+public final class GeneratorCli {
+
+  static final String CACHE_PROPERTY = "oas3.vertx.specCache";
+
+  private static final String INPUT_SPEC = "--input-spec";
+
+  public static void main(String[] pArgs) throws IOException {
+    Path cacheDirectory = Paths.get(System.getProperty(CACHE_PROPERTY,
+                                                       Paths.get(System.getProperty("user.home"),
+                                                                 ".cache",
+                                                                 "oas3-vertx",
+                                                                 "specs")
+                                                         .toString()));
+    OpenAPIGenerator.main(bundleInputSpec(pArgs,
+                                          new SpecLoader(cacheDirectory)));
+  }
+
+  /**
+   * Replaces the input specification of a {@code generate} command by its
+   * bundle.
+   */
+  static String[] bundleInputSpec(String[] pArgs, SpecLoader pLoader) throws IOException {
+    if (pArgs.length == 0 || !"generate".equals(pArgs[0])) {
+      return pArgs;
+    }
+    String[] args = pArgs.clone();
+    for (int i = 1; i < args.length; i++) {
+      if (("-i".equals(args[i]) || INPUT_SPEC.equals(args[i])) && i + 1 < args.length) {
+        i++;
+        args[i] = pLoader.bundle(args[i]).toString();
+      } else if (args[i].startsWith(INPUT_SPEC + "=")) {
+        args[i] = INPUT_SPEC + "=" + pLoader.bundle(args[i].substring(INPUT_SPEC.length() + 1));
+      }
+    }
+    return args;
+  }
+
+  private GeneratorCli() {
+  }
+}
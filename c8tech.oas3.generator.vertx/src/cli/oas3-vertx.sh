@@ -0,0 +1,14 @@
+#!/bin/sh
+#
+# Runs the generator command line. The class data sharing archive created by
+# the 'cli' profile is used when it is next to the jar, so the classes of the
+# generator, the parser and the template engine are mapped from the archive
+# instead of being loaded and verified on every run.
+#
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIR/${cli.jar.name}"
+ARCHIVE="$DIR/${cli.archive.name}"
+if [ -f "$ARCHIVE" ]; then
+  exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -XX:TieredStopAtLevel=1 -cp "$JAR" ${cli.main.class} "$@"
+fi
+exec java -XX:TieredStopAtLevel=1 -cp "$JAR" ${cli.main.class} "$@"
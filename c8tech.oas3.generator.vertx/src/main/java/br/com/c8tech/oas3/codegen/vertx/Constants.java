@@ -13,12 +13,29 @@ package br.com.c8tech.oas3.codegen.vertx;
 
 public class Constants {
 
+  static final String BATCH_ENDPOINT          = "batchEndpoint";
+  static final String BINARY_WIRE_FORMATS     = "binaryWireFormats";
   static final String DEFAULT_PACKAGE_API     = Constants.DEFAULT_PACKAGE_BASE + ".api";
   static final String DEFAULT_PACKAGE_BASE    = "br.com.c8tech.project";
   static final String DEFAULT_PACKAGE_INVOKER = DEFAULT_PACKAGE_BASE + ".exec";
   static final String DEFAULT_PACKAGE_MODEL   = DEFAULT_PACKAGE_BASE + ".model";
+  static final String FLATTEN_ALL_OF          = "flattenAllOf";
+  static final String GENERATE_CLIENT         = "generateClient";
+  static final String GENERATE_LAUNCHER       = "generateLauncher";
+  static final String IMMUTABLE_MODELS        = "immutableModels";
   static final String JAVA_EXTENSION          = ".java";
+  static final String JMH_BENCHMARKS          = "jmhBenchmarks";
+  static final String LAZY_MODEL_VIEWS        = "lazyModelViews";
+  static final String LOAD_TEST_HARNESS       = "loadTestHarness";
+  static final String NATIVE_IMAGE_METADATA   = "nativeImageMetadata";
+  static final String OPERATION_METRICS       = "operationMetrics";
+  static final String REQUEST_LOG_SAMPLE_RATE = "requestLogSampleRate";
+  static final String REQUEST_LOG_SAMPLING    = "requestLogSampling";
+  static final String SPARSE_FIELDSETS        = "sparseFieldsets";
+  static final String SQL_ROW_MAPPERS         = "sqlRowMappers";
+  static final String TRACK_DIRTY_FIELDS      = "trackDirtyFields";
   static final String TEMPLATE_FOLDER         = "vertx-oas3";
+  static final String WARMUP                  = "warmup";
 
   private Constants() {
   }
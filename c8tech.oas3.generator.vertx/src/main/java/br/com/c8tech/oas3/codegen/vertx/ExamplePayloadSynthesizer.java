@@ -0,0 +1,325 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+
+/**
+ * Builds example JSON payloads for the models of a specification.
+ * <p>
+ * The examples declared in the schemas are used when present. Otherwise a
+ * synthetic value is derived from the property type, format and constraints
+ * (enum values, length, bounds and number of items), so the payload is
+ * representative of what the generated code will handle at runtime.
+ */
+final class ExamplePayloadSynthesizer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExamplePayloadSynthesizer.class);
+
+  private static final int DEFAULT_ITEMS = 2;
+
+  private static final int DEFAULT_STRING_LENGTH = 12;
+
+  /**
+   * Nested models below this depth are left out, which also stops recursive
+   * schemas.
+   */
+  private static final int MAX_DEPTH = 4;
+
+  private final JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+  private final ObjectMapper mapper = Json.mapper();
+
+  private final Map<String, CodegenModel> models;
+
+  /**
+   * @param pModels
+   *          all the models of the specification, by class name
+   */
+  ExamplePayloadSynthesizer(Map<String, CodegenModel> pModels) {
+    this.models = pModels;
+  }
+
+  /**
+   * Returns an example of the model, or null when the model has no properties
+   * to be filled.
+   */
+  ObjectNode synthesize(CodegenModel pModel) {
+    return synthesize(pModel,
+                      0);
+  }
+
+  /**
+   * Returns an example of a value of the given property, which may be a
+   * container, a model reference or a scalar.
+   */
+  JsonNode synthesize(CodegenProperty pProperty) {
+    return synthesize(pProperty,
+                      0,
+                      0);
+  }
+
+  /**
+   * Parses an example declared in the specification.
+   */
+  JsonNode parse(String pJson) {
+    try {
+      return mapper.readTree(pJson);
+    }
+    catch (JsonProcessingException e) {
+      LOG.debug("Ignoring example that is not valid JSON: {}",
+                pJson);
+      return null;
+    }
+  }
+
+  /**
+   * Serializes the node in compact form.
+   */
+  String toJson(JsonNode pNode) {
+    try {
+      return mapper.writeValueAsString(pNode);
+    }
+    catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns a Java string literal, quotes included, holding the given text.
+   * Characters outside printable ASCII are escaped, so the literal can be
+   * written in any source encoding.
+   */
+  static String toJavaLiteral(String pText) {
+    StringBuilder literal = new StringBuilder(pText.length() + 16).append('"');
+    for (int i = 0; i < pText.length(); i++) {
+      char c = pText.charAt(i);
+      if (c == '"' || c == '\\') {
+        literal.append('\\').append(c);
+      } else if (c < 0x20 || c > 0x7e) {
+        literal.append(String.format("\\u%04x",
+                                     (int) c));
+      } else {
+        literal.append(c);
+      }
+    }
+    return literal.append('"').toString();
+  }
+
+  private ObjectNode synthesize(CodegenModel pModel, int pDepth) {
+
+    JsonNode declared = declaredExample(pModel.modelJson);
+    if (declared != null && declared.isObject()) {
+      return (ObjectNode) declared;
+    }
+    if (pModel.vars.isEmpty() && pModel.parent == null) {
+      return null;
+    }
+    ObjectNode object = nodes.objectNode();
+    CodegenModel parent = pModel.parent == null ? null : models.get(pModel.parent);
+    if (parent != null && pDepth < MAX_DEPTH) {
+      ObjectNode inherited = synthesize(parent,
+                                        pDepth + 1);
+      if (inherited != null) {
+        object.setAll(inherited);
+      }
+    }
+    for (CodegenProperty property : pModel.vars) {
+      JsonNode value = synthesize(property,
+                                  pDepth,
+                                  0);
+      if (value != null) {
+        object.set(property.baseName,
+                   value);
+      }
+    }
+    return object;
+  }
+
+  private JsonNode synthesize(CodegenProperty pProperty, int pDepth, int pIndex) {
+
+    JsonNode declared = declaredExample(pProperty.jsonSchema);
+    if (declared != null && !declared.isNull() && pIndex == 0) {
+      return declared;
+    }
+    if (pProperty.isListContainer || "set".equals(pProperty.containerType)) {
+      ArrayNode array = nodes.arrayNode();
+      int count = itemCount(pProperty);
+      for (int i = 0; i < count && pProperty.items != null; i++) {
+        JsonNode item = synthesize(pProperty.items,
+                                   pDepth,
+                                   i);
+        if (item == null) {
+          break;
+        }
+        array.add(item);
+      }
+      return array;
+    }
+    if (pProperty.isMapContainer) {
+      ObjectNode map = nodes.objectNode();
+      for (int i = 0; i < DEFAULT_ITEMS && pProperty.items != null; i++) {
+        JsonNode value = synthesize(pProperty.items,
+                                    pDepth,
+                                    i);
+        if (value == null) {
+          break;
+        }
+        map.set("key" + i,
+                value);
+      }
+      return map;
+    }
+    List<?> enumValues = enumValues(pProperty);
+    if (enumValues != null && !enumValues.isEmpty()) {
+      return nodes.textNode(String.valueOf(enumValues.get(pIndex % enumValues.size())));
+    }
+    CodegenModel model = pProperty.complexType == null ? null : models.get(pProperty.complexType);
+    if (model != null && !model.isEnum) {
+      if (pDepth + 1 >= MAX_DEPTH) {
+        return null;
+      }
+      return synthesize(model,
+                        pDepth + 1);
+    }
+    return scalar(pProperty,
+                  pIndex);
+  }
+
+  private JsonNode scalar(CodegenProperty pProperty, int pIndex) {
+
+    if (pProperty.isBoolean) {
+      return nodes.booleanNode(pIndex % 2 == 0);
+    }
+    if (pProperty.isInteger || pProperty.isLong) {
+      return nodes.numberNode(bounded(pProperty,
+                                      BigDecimal.valueOf(pIndex + 1L)).longValue());
+    }
+    if (pProperty.isNumber || pProperty.isFloat || pProperty.isDouble) {
+      return nodes.numberNode(bounded(pProperty,
+                                      new BigDecimal("1.5").add(BigDecimal.valueOf(pIndex))));
+    }
+    if (pProperty.isDateTime) {
+      return nodes.textNode(String.format("2020-01-%02dT10:15:30Z",
+                                          pIndex % 28 + 1));
+    }
+    if (pProperty.isDate) {
+      return nodes.textNode(String.format("2020-01-%02d",
+                                          pIndex % 28 + 1));
+    }
+    if (pProperty.isUuid) {
+      return nodes.textNode(String.format("3fa85f64-5717-4562-b3fc-%012x",
+                                          0x2c963f66afa6L + pIndex));
+    }
+    if (pProperty.isUri) {
+      return nodes.textNode("https://example.com/" + pProperty.baseName + "/" + pIndex);
+    }
+    if (pProperty.isEmail) {
+      return nodes.textNode(pProperty.baseName.toLowerCase() + pIndex + "@example.com");
+    }
+    if (pProperty.isByteArray || pProperty.isBinary) {
+      return nodes.textNode("AAECAwQFBgcICQ==");
+    }
+    if (pProperty.isFreeFormObject || "Object".equals(pProperty.dataType)) {
+      return nodes.objectNode();
+    }
+    return nodes.textNode(text(pProperty,
+                               pIndex));
+  }
+
+  private String text(CodegenProperty pProperty, int pIndex) {
+
+    String base = pIndex == 0 ? pProperty.baseName : pProperty.baseName + pIndex;
+    int min = pProperty.minLength == null ? 0 : pProperty.minLength;
+    int max = pProperty.maxLength == null ? Integer.MAX_VALUE : pProperty.maxLength;
+    int length = Math.max(min,
+                          Math.min(max,
+                                   Math.max(base.length(),
+                                            DEFAULT_STRING_LENGTH)));
+    StringBuilder text = new StringBuilder(length);
+    while (text.length() < length) {
+      text.append(base);
+    }
+    text.setLength(length);
+    return text.toString();
+  }
+
+  private static BigDecimal bounded(CodegenProperty pProperty, BigDecimal pValue) {
+
+    BigDecimal value = pValue;
+    if (pProperty.minimum != null) {
+      BigDecimal minimum = new BigDecimal(pProperty.minimum);
+      if (value.compareTo(minimum) < 0 || (pProperty.exclusiveMinimum && value.compareTo(minimum) == 0)) {
+        value = minimum.add(pProperty.exclusiveMinimum ? BigDecimal.ONE : BigDecimal.ZERO);
+      }
+    }
+    if (pProperty.maximum != null) {
+      BigDecimal maximum = new BigDecimal(pProperty.maximum);
+      if (value.compareTo(maximum) > 0 || (pProperty.exclusiveMaximum && value.compareTo(maximum) == 0)) {
+        value = maximum.subtract(pProperty.exclusiveMaximum ? BigDecimal.ONE : BigDecimal.ZERO);
+      }
+    }
+    return value;
+  }
+
+  private static int itemCount(CodegenProperty pProperty) {
+
+    int count = DEFAULT_ITEMS;
+    if (pProperty.minItems != null) {
+      count = Math.max(count,
+                       pProperty.minItems);
+    }
+    if (pProperty.maxItems != null) {
+      count = Math.min(count,
+                       pProperty.maxItems);
+    }
+    return count;
+  }
+
+  private List<?> enumValues(CodegenProperty pProperty) {
+
+    Map<String, Object> allowableValues = pProperty.allowableValues;
+    if (allowableValues == null && pProperty.complexType != null) {
+      CodegenModel model = models.get(pProperty.complexType);
+      if (model != null && model.isEnum) {
+        allowableValues = model.allowableValues;
+      }
+    }
+    Object values = allowableValues == null ? null : allowableValues.get("values");
+    return values instanceof List ? (List<?>) values : null;
+  }
+
+  private JsonNode declaredExample(String pJsonSchema) {
+
+    if (pJsonSchema == null || pJsonSchema.isEmpty()) {
+      return null;
+    }
+    JsonNode schema = parse(pJsonSchema);
+    return schema == null ? null : schema.get("example");
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.openapitools.codegen.CodegenProperty;
+
+/**
+ * Builds the Java expressions that the model templates use to convert a
+ * property to and from the value stored in a {@code JsonObject}, following the same
+ * rules as the converters generated by vertx-codegen (nested data objects as
+ * {@code JsonObject}, enums by name, containers as {@code JsonArray} or
+ * {@code JsonObject}).
+ * <p>
+ * Expressions only use fully qualified names, so the templates do not need
+ * extra imports.
+ */
+final class JsonExpressions {
+
+  private static final String JSON_ARRAY   = "io.vertx.core.json.JsonArray";
+  private static final String JSON_OBJECT  = "io.vertx.core.json.JsonObject";
+  private static final String TO_LIST      = "java.util.stream.Collectors.toList()";
+
+  private static final Map<String, String> PARSED_TYPES = Map
+    .ofEntries(Map.entry("Integer",
+                         "((Number) %s).intValue()"),
+               Map.entry("Long",
+                         "((Number) %s).longValue()"),
+               Map.entry("Short",
+                         "((Number) %s).shortValue()"),
+               Map.entry("Double",
+                         "((Number) %s).doubleValue()"),
+               Map.entry("Float",
+                         "((Number) %s).floatValue()"),
+               Map.entry("BigDecimal",
+                         "new java.math.BigDecimal(%s.toString())"),
+               Map.entry("OffsetDateTime",
+                         "java.time.OffsetDateTime.parse((String) %s)"),
+               Map.entry("LocalDateTime",
+                         "java.time.LocalDateTime.parse((String) %s)"),
+               Map.entry("LocalDate",
+                         "java.time.LocalDate.parse((String) %s)"),
+               Map.entry("UUID",
+                         "java.util.UUID.fromString((String) %s)"),
+               Map.entry("URI",
+                         "java.net.URI.create((String) %s)"));
+
+  /**
+   * Returns an expression converting {@code pValue}, a non null value of the
+   * given property, to its JSON representation.
+   *
+   * @param pProperty
+   *          the property
+   * @param pValue
+   *          the expression holding the value
+   * @param pEnumClassnames
+   *          the class names of the enum models, which are serialized by name
+   * @return a Java expression
+   */
+  static String toJsonValue(CodegenProperty pProperty, String pValue,
+    Set<String> pEnumClassnames) {
+    return toJsonValue(pProperty,
+                       pValue,
+                       pEnumClassnames,
+                       0);
+  }
+
+  private static String toJsonValue(CodegenProperty pProperty, String pValue,
+    Set<String> pEnumClassnames, int pDepth) {
+
+    if (pProperty.isListContainer || "set".equals(pProperty.containerType)) {
+      if (pProperty.items == null || isIdentity(pProperty.items,
+                                                pEnumClassnames)) {
+        return "new " + JSON_ARRAY + "(new java.util.ArrayList<>(" + pValue + "))";
+      }
+      String item = "item" + pDepth;
+      return "new " + JSON_ARRAY + "(" + pValue + ".stream().map(" + item + " -> " + item
+          + " == null ? null : " + toJsonValue(pProperty.items,
+                                               item,
+                                               pEnumClassnames,
+                                               pDepth + 1)
+          + ").collect(" + TO_LIST + "))";
+    }
+    if (pProperty.isMapContainer) {
+      if (pProperty.items == null || isIdentity(pProperty.items,
+                                                pEnumClassnames)) {
+        return "new " + JSON_OBJECT + "(new java.util.LinkedHashMap<String, Object>(" + pValue + "))";
+      }
+      String entry = "entry" + pDepth;
+      return "new " + JSON_OBJECT + "(" + pValue + ".entrySet().stream().collect("
+          + "java.util.stream.Collectors.<java.util.Map.Entry<String, " + pProperty.items.datatypeWithEnum
+          + ">, String, Object, "
+          + "java.util.LinkedHashMap<String, Object>> toMap(java.util.Map.Entry::getKey, " + entry + " -> "
+          + entry + ".getValue() == null ? null : " + toJsonValue(pProperty.items,
+                                                                  entry + ".getValue()",
+                                                                  pEnumClassnames,
+                                                                  pDepth + 1)
+          + ", (a, b) -> b, java.util.LinkedHashMap::new)))";
+    }
+    if (isEnum(pProperty,
+               pEnumClassnames)) {
+      return pValue + ".name()";
+    }
+    if (pProperty.isModel || isDataObject(pProperty)) {
+      return pValue + ".toJson()";
+    }
+    if (pProperty.isDate || pProperty.isDateTime || pProperty.isUuid || pProperty.isUri) {
+      return pValue + ".toString()";
+    }
+    return pValue;
+  }
+
+  /**
+   * Returns an expression converting {@code pValue}, a non null value read
+   * from a {@code JsonObject} (a {@code JsonObject}, {@code JsonArray},
+   * {@code String}, {@code Number} or {@code Boolean}), to the Java type of the
+   * given property.
+   *
+   * @param pProperty
+   *          the property
+   * @param pValue
+   *          the expression holding the JSON value
+   * @param pEnumClassnames
+   *          the class names of the enum models, which are read by name
+   * @return a Java expression
+   */
+  static String fromJsonValue(CodegenProperty pProperty, String pValue,
+    Set<String> pEnumClassnames) {
+    return fromJsonValue(pProperty,
+                         pValue,
+                         pEnumClassnames,
+                         0);
+  }
+
+  private static String fromJsonValue(CodegenProperty pProperty, String pValue,
+    Set<String> pEnumClassnames, int pDepth) {
+
+    if (pProperty.isListContainer || "set".equals(pProperty.containerType)) {
+      String item = "item" + pDepth;
+      String collector = "set".equals(pProperty.containerType)
+          ? "java.util.stream.Collectors.toCollection(java.util.LinkedHashSet::new)"
+          : TO_LIST;
+      String itemValue = pProperty.items == null ? item
+          : fromJsonValue(pProperty.items,
+                          item,
+                          pEnumClassnames,
+                          pDepth + 1);
+      return "((" + JSON_ARRAY + ") " + pValue + ").stream().map(" + item + " -> " + item
+          + " == null ? null : " + itemValue + ").collect(" + collector + ")";
+    }
+    if (pProperty.isMapContainer) {
+      String entry = "entry" + pDepth;
+      String entryValue = pProperty.items == null ? entry + ".getValue()"
+          : fromJsonValue(pProperty.items,
+                          entry + ".getValue()",
+                          pEnumClassnames,
+                          pDepth + 1);
+      return "((" + JSON_OBJECT + ") " + pValue + ").getMap().entrySet().stream().collect("
+          + "java.util.stream.Collectors.toMap(java.util.Map.Entry::getKey, " + entry + " -> " + entry
+          + ".getValue() == null ? null : " + entryValue
+          + ", (a, b) -> b, java.util.LinkedHashMap::new))";
+    }
+    if (isEnum(pProperty,
+               pEnumClassnames)) {
+      return pProperty.datatypeWithEnum + ".valueOf((String) " + pValue + ")";
+    }
+    if (pProperty.isModel || isDataObject(pProperty)) {
+      return "new " + pProperty.dataType + "((" + JSON_OBJECT + ") " + pValue + ")";
+    }
+    if (pProperty.isByteArray) {
+      return "java.util.Base64.getDecoder().decode((String) " + pValue + ")";
+    }
+    String parser = PARSED_TYPES.get(pProperty.dataType);
+    if (parser != null) {
+      return String.format(parser,
+                           pValue);
+    }
+    return "(" + pProperty.dataType + ") " + pValue;
+  }
+
+  private static boolean isDataObject(CodegenProperty pProperty) {
+    return pProperty.complexType != null && !pProperty.isPrimitiveType && !pProperty.isFreeFormObject
+        && !pProperty.isDate && !pProperty.isDateTime && !pProperty.isUuid
+        && !pProperty.isUri && !pProperty.isBinary && !pProperty.isFile
+        && !"Object".equals(pProperty.complexType);
+  }
+
+  static boolean isEnum(CodegenProperty pProperty, Set<String> pEnumClassnames) {
+    return (pProperty.isEnum && !pProperty.isContainer)
+        || (pProperty.complexType != null && pEnumClassnames.contains(pProperty.complexType)
+            && !pProperty.isContainer);
+  }
+
+  private static boolean isIdentity(CodegenProperty pProperty, Set<String> pEnumClassnames) {
+    return !pProperty.isContainer && !isEnum(pProperty,
+                                             pEnumClassnames)
+        && !pProperty.isModel && !isDataObject(pProperty) && !pProperty.isDate
+        && !pProperty.isDateTime && !pProperty.isUuid && !pProperty.isUri;
+  }
+
+  private JsonExpressions() {
+  }
+}
@@ -0,0 +1,700 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+
+/**
+ * Loads a specification split across several documents and bundles it into a
+ * single, self-contained document before it is handed to the generator.
+ * <p>
+ * The documents reachable through external {@code $ref}s are fetched and
+ * parsed in parallel, one level of references at a time. Each parsed document,
+ * with its references made absolute, is cached on disk under the SHA-256 of its
+ * location and content, so a document that did not change is never parsed
+ * again. The bundle itself is cached under the hash of all its documents.
+ * <p>
+ * Bundling hoists every externally referenced component into the
+ * {@code components} of the root document, named after the referenced
+ * component (or file), and rewrites the references to local ones. References
+ * whose kind cannot be told from their position, such as path items, are
+ * inlined. The bundle only holds local references, so the parser used by
+ * {@link CodegenConfigurator} reads it in a single pass.
+ */
+public final class SpecLoader {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpecLoader.class);
+
+  private static final String COMPONENTS = "components";
+
+  private static final String REF = "$ref";
+
+  private static final Pattern URI_SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]+:.*");
+
+  private static final Pattern INVALID_COMPONENT_NAME = Pattern.compile("[^A-Za-z0-9._-]");
+
+  /**
+   * The component kind of a reference, given by the closest of these keys in
+   * the path leading to it.
+   */
+  private static final Map<String, String> COMPONENT_KINDS = new HashMap<>();
+
+  /**
+   * The keys whose values map names chosen by the author to objects.
+   */
+  private static final Set<String> NAME_MAPS = new HashSet<>(Arrays.asList("callbacks",
+                                                                           "content",
+                                                                           "definitions",
+                                                                           "encoding",
+                                                                           "examples",
+                                                                           "headers",
+                                                                           "links",
+                                                                           "parameters",
+                                                                           "paths",
+                                                                           "patternProperties",
+                                                                           "properties",
+                                                                           "requestBodies",
+                                                                           "responses",
+                                                                           "schemas",
+                                                                           "securitySchemes",
+                                                                           "variables"));
+
+  static {
+    for (String key : new String[] { "schema", "schemas", "items", "additionalProperties", "not", "allOf",
+        "anyOf", "oneOf", "properties" }) {
+      COMPONENT_KINDS.put(key,
+                          "schemas");
+    }
+    COMPONENT_KINDS.put("parameters",
+                        "parameters");
+    COMPONENT_KINDS.put("responses",
+                        "responses");
+    COMPONENT_KINDS.put("requestBody",
+                        "requestBodies");
+    COMPONENT_KINDS.put("requestBodies",
+                        "requestBodies");
+    COMPONENT_KINDS.put("headers",
+                        "headers");
+    COMPONENT_KINDS.put("examples",
+                        "examples");
+    COMPONENT_KINDS.put("links",
+                        "links");
+    COMPONENT_KINDS.put("callbacks",
+                        "callbacks");
+    COMPONENT_KINDS.put("securitySchemes",
+                        "securitySchemes");
+  }
+
+  private final Path cacheDirectory;
+
+  private final int parallelism;
+
+  /**
+   * @param pCacheDirectory
+   *          the directory holding the parsed documents and the bundles
+   * @param pParallelism
+   *          the number of documents fetched and parsed at the same time
+   */
+  public SpecLoader(Path pCacheDirectory, int pParallelism) {
+    if (pParallelism < 1) {
+      throw new IllegalArgumentException("The parallelism must be at least 1");
+    }
+    this.cacheDirectory = pCacheDirectory;
+    this.parallelism = pParallelism;
+  }
+
+  public SpecLoader(Path pCacheDirectory) {
+    this(pCacheDirectory,
+         Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Bundles the specification and points the configurator to the bundle.
+   *
+   * @param pConfigurator
+   *          the configurator of the generation
+   * @param pInputSpec
+   *          the path or URL of the root document
+   * @return the generation input, read from the bundle
+   * @throws IOException
+   *           when a document cannot be read or parsed
+   */
+  public ClientOptInput toClientOptInput(CodegenConfigurator pConfigurator, String pInputSpec)
+    throws IOException {
+    pConfigurator.setInputSpec(bundle(pInputSpec).toString());
+    return pConfigurator.toClientOptInput();
+  }
+
+  /**
+   * Bundles the specification and parses the bundle.
+   *
+   * @param pInputSpec
+   *          the path or URL of the root document
+   * @return the parsed specification
+   * @throws IOException
+   *           when a document cannot be read or parsed
+   */
+  public OpenAPI load(String pInputSpec) throws IOException {
+    Path bundle = bundle(pInputSpec);
+    OpenAPI openAPI = new OpenAPIV3Parser().read(bundle.toString());
+    if (openAPI == null) {
+      throw new IOException("Bundle '" + bundle + "' of '" + pInputSpec + "' is not a valid specification");
+    }
+    return openAPI;
+  }
+
+  /**
+   * Returns the bundle of the specification, from the cache when none of its
+   * documents changed.
+   *
+   * @param pInputSpec
+   *          the path or URL of the root document
+   * @return the path of the bundle, a JSON document
+   * @throws IOException
+   *           when a document cannot be read or parsed
+   */
+  public Path bundle(String pInputSpec) throws IOException {
+    long start = System.nanoTime();
+    URI root = toUri(pInputSpec);
+    AtomicInteger cacheHits = new AtomicInteger();
+    Map<URI, Document> documents = fetchAll(root,
+                                            cacheHits);
+    StringBuilder keys = new StringBuilder();
+    for (Document document : documents.values()) {
+      keys.append(document.key).append('\n');
+    }
+    Path bundle = cacheDirectory.resolve(sha256(keys.toString().getBytes(StandardCharsets.UTF_8)) + "-bundle.json");
+    if (!Files.exists(bundle)) {
+      try {
+        write(new Bundler(root,
+                          documents).bundle(),
+              bundle);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+    LOG.info("Loaded {} documents of '{}' in {} ms, {} from cache",
+             documents.size(),
+             pInputSpec,
+             (System.nanoTime() - start) / 1_000_000,
+             cacheHits.get());
+    return bundle;
+  }
+
+  /**
+   * Fetches the root document and all the documents it references, directly
+   * or not. The documents of a level of references are read in parallel.
+   */
+  private Map<URI, Document> fetchAll(URI pRoot, AtomicInteger pCacheHits) throws IOException {
+    AtomicInteger threads = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                                                            runnable -> {
+                                                              Thread thread = new Thread(runnable,
+                                                                                         "spec-loader-"
+                                                                                             + threads.incrementAndGet());
+                                                              thread.setDaemon(true);
+                                                              return thread;
+                                                            });
+    try {
+      Map<URI, Document> documents = new LinkedHashMap<>();
+      Set<URI> level = new LinkedHashSet<>();
+      level.add(pRoot);
+      while (!level.isEmpty()) {
+        Map<URI, Future<Document>> pending = new LinkedHashMap<>();
+        for (URI uri : level) {
+          pending.put(uri,
+                      executor.submit(() -> read(uri,
+                                                   pCacheHits)));
+        }
+        Set<URI> next = new LinkedHashSet<>();
+        for (Map.Entry<URI, Future<Document>> entry : pending.entrySet()) {
+          Document document = await(entry.getValue(),
+                                    entry.getKey());
+          documents.put(entry.getKey(),
+                        document);
+          collectDocuments(document.tree,
+                           next);
+        }
+        next.removeAll(documents.keySet());
+        level = next;
+      }
+      return documents;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Document await(Future<Document> pFuture, URI pUri) throws IOException {
+    try {
+      return pFuture.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while reading '" + pUri + "'");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Failed to read '" + pUri + "'",
+                            e.getCause());
+    }
+  }
+
+  /**
+   * Reads a document, from the cache when it was already parsed.
+   */
+  private Document read(URI pUri, AtomicInteger pCacheHits) throws IOException {
+    byte[] content = readBytes(pUri);
+    MessageDigest digest = sha256();
+    digest.update(pUri.toString().getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) '\n');
+    String key = hex(digest.digest(content));
+    Path cached = cacheDirectory.resolve(key + ".json");
+    if (Files.exists(cached)) {
+      pCacheHits.incrementAndGet();
+      return new Document(key,
+                          Json.mapper().readTree(cached.toFile()));
+    }
+    JsonNode tree = isJson(content) ? Json.mapper().readTree(content) : Yaml.mapper().readTree(content);
+    if (tree == null || !tree.isObject()) {
+      throw new IOException("Document '" + pUri + "' is not an object");
+    }
+    absolutize(tree,
+               pUri);
+    write(tree,
+          cached);
+    return new Document(key,
+                        tree);
+  }
+
+  private static byte[] readBytes(URI pUri) throws IOException {
+    if ("file".equals(pUri.getScheme())) {
+      return Files.readAllBytes(Paths.get(pUri));
+    }
+    try (InputStream in = pUri.toURL().openStream()) {
+      return in.readAllBytes();
+    }
+  }
+
+  private static boolean isJson(byte[] pContent) {
+    for (byte b : pContent) {
+      if (!Character.isWhitespace(b)) {
+        return b == '{';
+      }
+    }
+    return false;
+  }
+
+  private void write(JsonNode pTree, Path pTarget) throws IOException {
+    Files.createDirectories(cacheDirectory);
+    Path temporary = Files.createTempFile(cacheDirectory,
+                                          "spec-",
+                                          ".tmp");
+    try {
+      Json.mapper().writeValue(temporary.toFile(),
+                               pTree);
+      try {
+        Files.move(temporary,
+                   pTarget,
+                   StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary,
+                   pTarget,
+                   StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Rewrites all the references of a document as absolute ones, so they still
+   * point to the same place once the document is bundled.
+   */
+  private static void absolutize(JsonNode pNode, URI pBase) throws IOException {
+    if (pNode.isObject()) {
+      ObjectNode object = (ObjectNode) pNode;
+      JsonNode ref = object.get(REF);
+      if (ref != null && ref.isTextual()) {
+        String text = ref.asText();
+        int hash = text.indexOf('#');
+        String document = hash < 0 ? text : text.substring(0,
+                                                           hash);
+        String fragment = hash < 0 ? "" : text.substring(hash);
+        try {
+          URI target = document.isEmpty() ? pBase : pBase.resolve(new URI(null,
+                                                                          null,
+                                                                          document,
+                                                                          null));
+          object.put(REF,
+                     withoutFragment(target) + fragment);
+        } catch (URISyntaxException | IllegalArgumentException e) {
+          throw new IOException("Invalid reference '" + text + "' in '" + pBase + "'",
+                                e);
+        }
+        return;
+      }
+    }
+    for (JsonNode child : pNode) {
+      absolutize(child,
+                 pBase);
+    }
+  }
+
+  private static void collectDocuments(JsonNode pNode, Set<URI> pDocuments) {
+    if (pNode.isObject()) {
+      JsonNode ref = pNode.get(REF);
+      if (ref != null && ref.isTextual()) {
+        pDocuments.add(documentOf(ref.asText()));
+        return;
+      }
+    }
+    for (JsonNode child : pNode) {
+      collectDocuments(child,
+                       pDocuments);
+    }
+  }
+
+  private static URI documentOf(String pRef) {
+    int hash = pRef.indexOf('#');
+    return URI.create(hash < 0 ? pRef : pRef.substring(0,
+                                                       hash));
+  }
+
+  private static String fragmentOf(String pRef) {
+    int hash = pRef.indexOf('#');
+    return hash < 0 ? "" : pRef.substring(hash + 1);
+  }
+
+  /**
+   * Returns the location of a document, in a canonical form so the same file
+   * is always identified by the same URI.
+   */
+  private static URI withoutFragment(URI pUri) {
+    URI uri;
+    try {
+      uri = new URI(pUri.getScheme(),
+                    pUri.getSchemeSpecificPart(),
+                    null).normalize();
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException(e);
+    }
+    return "file".equals(uri.getScheme()) ? Paths.get(uri).toUri() : uri;
+  }
+
+  private static URI toUri(String pInputSpec) {
+    if (URI_SCHEME.matcher(pInputSpec).matches() && pInputSpec.indexOf(':') > 1) {
+      return withoutFragment(URI.create(pInputSpec));
+    }
+    return Paths.get(pInputSpec).toAbsolutePath().normalize().toUri();
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String sha256(byte[] pContent) {
+    return hex(sha256().digest(pContent));
+  }
+
+  private static String hex(byte[] pBytes) {
+    StringBuilder hex = new StringBuilder(pBytes.length * 2);
+    for (byte b : pBytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xF,
+                                    16))
+        .append(Character.forDigit(b & 0xF,
+                                   16));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * A parsed document and the cache key of its content.
+   */
+  private static final class Document {
+
+    private final String key;
+
+    private final JsonNode tree;
+
+    Document(String pKey, JsonNode pTree) {
+      this.key = pKey;
+      this.tree = pTree;
+    }
+  }
+
+  /**
+   * Builds the bundle of a root document. The root is copied, so the cached
+   * trees are never modified.
+   */
+  private static final class Bundler {
+
+    private final URI root;
+
+    private final Map<URI, Document> documents;
+
+    private final ObjectNode bundle;
+
+    /**
+     * The local reference of every hoisted component, by absolute reference.
+     */
+    private final Map<String, String> hoisted = new HashMap<>();
+
+    private final Set<String> inlining = new HashSet<>();
+
+    Bundler(URI pRoot, Map<URI, Document> pDocuments) {
+      this.root = pRoot;
+      this.documents = pDocuments;
+      this.bundle = pDocuments.get(pRoot).tree.deepCopy();
+    }
+
+    JsonNode bundle() {
+      JsonNode components = bundle.get(COMPONENTS);
+      if (components != null) {
+        components.fields().forEachRemaining(kind -> kind.getValue().fields().forEachRemaining(component -> {
+          JsonNode ref = component.getValue().get(REF);
+          if (ref != null && ref.isTextual() && !documentOf(ref.asText()).equals(root)) {
+            hoisted.putIfAbsent(ref.asText(),
+                                localReference(kind.getKey(),
+                                               component.getKey()));
+          }
+        }));
+      }
+      rewrite(bundle,
+              new ArrayDeque<>());
+      return bundle;
+    }
+
+    private JsonNode rewrite(JsonNode pNode, Deque<String> pPath) {
+      if (pNode.isObject()) {
+        ObjectNode object = (ObjectNode) pNode;
+        JsonNode ref = object.get(REF);
+        if (ref != null && ref.isTextual()) {
+          return rewriteReference(object,
+                                  ref.asText(),
+                                  pPath);
+        }
+        List<String> names = new ArrayList<>();
+        object.fieldNames().forEachRemaining(names::add);
+        for (String name : names) {
+          pPath.addLast(name);
+          object.replace(name,
+                         rewrite(object.get(name),
+                                 pPath));
+          pPath.removeLast();
+        }
+      } else if (pNode.isArray()) {
+        ArrayNode array = (ArrayNode) pNode;
+        for (int i = 0; i < array.size(); i++) {
+          pPath.addLast(String.valueOf(i));
+          array.set(i,
+                    rewrite(array.get(i),
+                            pPath));
+          pPath.removeLast();
+        }
+      }
+      return pNode;
+    }
+
+    private JsonNode rewriteReference(ObjectNode pObject, String pRef, Deque<String> pPath) {
+      if (pRef.startsWith("#")) {
+        // already rewritten, as the hoisted components are visited again
+        return pObject;
+      }
+      if (documentOf(pRef).equals(root)) {
+        pObject.put(REF,
+                    "#" + fragmentOf(pRef));
+        return pObject;
+      }
+      String pointer = decode(fragmentOf(pRef));
+      if (pPath.size() == 3 && COMPONENTS.equals(pPath.getFirst())) {
+        // a root component aliasing an external one takes its content
+        Iterator<String> path = pPath.iterator();
+        path.next();
+        if (localReference(path.next(),
+                           path.next()).equals(hoisted.get(pRef))) {
+          return rewrite(target(pRef,
+                                pointer).deepCopy(),
+                         pPath);
+        }
+      }
+      String kind = componentKind(pointer,
+                                  pPath);
+      if (kind != null) {
+        pObject.put(REF,
+                    hoist(pRef,
+                          pointer,
+                          kind));
+        return pObject;
+      }
+      if (!inlining.add(pRef)) {
+        throw new IllegalStateException("Reference '" + pRef + "' cannot be inlined into itself");
+      }
+      JsonNode inlined = rewrite(target(pRef,
+                                        pointer).deepCopy(),
+                                 pPath);
+      inlining.remove(pRef);
+      return inlined;
+    }
+
+    /**
+     * Copies the referenced component into the components of the bundle, once,
+     * and returns its local reference. The name is reserved before the copy is
+     * rewritten, so recursive schemas end on a local reference.
+     */
+    private String hoist(String pRef, String pPointer, String pKind) {
+      String local = hoisted.get(pRef);
+      if (local != null) {
+        return local;
+      }
+      ObjectNode components = bundle.with(COMPONENTS).with(pKind);
+      String name = uniqueName(components,
+                               componentName(pRef,
+                                             pPointer));
+      local = localReference(pKind,
+                             name);
+      hoisted.put(pRef,
+                  local);
+      JsonNode copy = target(pRef,
+                             pPointer).deepCopy();
+      components.set(name,
+                     copy);
+      Deque<String> path = new ArrayDeque<>();
+      path.add(COMPONENTS);
+      path.add(pKind);
+      path.add(name);
+      components.replace(name,
+                         rewrite(copy,
+                                 path));
+      return local;
+    }
+
+    private JsonNode target(String pRef, String pPointer) {
+      Document document = documents.get(documentOf(pRef));
+      JsonNode target = document == null ? null
+          : pPointer.isEmpty() ? document.tree : document.tree.at(JsonPointer.compile(pPointer));
+      if (target == null || target.isMissingNode()) {
+        throw new UncheckedIOException(new IOException("Unresolvable reference '" + pRef + "'"));
+      }
+      return target;
+    }
+
+    private static String localReference(String pKind, String pName) {
+      return "#/" + COMPONENTS + "/" + pKind + "/" + pName;
+    }
+
+    private static String componentKind(String pPointer, Deque<String> pPath) {
+      String[] segments = pPointer.split("/");
+      if (segments.length == 4 && COMPONENTS.equals(segments[1])) {
+        return segments[2];
+      }
+      String[] path = pPath.toArray(new String[0]);
+      for (int i = path.length - 1; i >= 0; i--) {
+        // a key under a map of names is a name chosen by the author, e.g. a
+        // property called 'links', not a keyword of the specification
+        if (i > 0 && NAME_MAPS.contains(path[i - 1])) {
+          continue;
+        }
+        String kind = COMPONENT_KINDS.get(path[i]);
+        if (kind != null) {
+          return kind;
+        }
+      }
+      return null;
+    }
+
+    private static String componentName(String pRef, String pPointer) {
+      String name;
+      if (pPointer.isEmpty()) {
+        String path = documentOf(pRef).getPath();
+        name = path.substring(path.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        if (dot > 0) {
+          name = name.substring(0,
+                                dot);
+        }
+      } else {
+        name = pPointer.substring(pPointer.lastIndexOf('/') + 1).replace("~1",
+                                                                         "/")
+          .replace("~0",
+                   "~");
+      }
+      name = INVALID_COMPONENT_NAME.matcher(name).replaceAll("_");
+      return name.isEmpty() ? "Component" : name;
+    }
+
+    private static String uniqueName(ObjectNode pComponents, String pName) {
+      String name = pName;
+      for (int i = 2; pComponents.has(name); i++) {
+        name = pName + i;
+      }
+      return name;
+    }
+
+    private static String decode(String pFragment) {
+      return pFragment.indexOf('%') < 0 ? pFragment
+          : URLDecoder.decode(pFragment.replace("+",
+                                                "%2B"),
+                              StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import static org.openapitools.codegen.utils.StringUtils.underscore;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.openapitools.codegen.CodegenProperty;
+
+/**
+ * Builds the Java expressions that the model templates use to read a property
+ * from a Vert.x SQL client {@code Row} and to bind it in a {@code Tuple}.
+ * <p>
+ * Scalar types are read with the typed {@code Row} getters. Nested data
+ * objects, containers and free-form values are expected to be stored in JSON
+ * columns.
+ */
+final class SqlExpressions {
+
+  private static final Map<String, String> ROW_GETTERS = Map
+    .ofEntries(Map.entry("String",
+                         "getString"),
+               Map.entry("Integer",
+                         "getInteger"),
+               Map.entry("Long",
+                         "getLong"),
+               Map.entry("Short",
+                         "getShort"),
+               Map.entry("Boolean",
+                         "getBoolean"),
+               Map.entry("Double",
+                         "getDouble"),
+               Map.entry("Float",
+                         "getFloat"),
+               Map.entry("BigDecimal",
+                         "getBigDecimal"),
+               Map.entry("OffsetDateTime",
+                         "getOffsetDateTime"),
+               Map.entry("LocalDateTime",
+                         "getLocalDateTime"),
+               Map.entry("LocalDate",
+                         "getLocalDate"),
+               Map.entry("LocalTime",
+                         "getLocalTime"),
+               Map.entry("UUID",
+                         "getUUID"));
+
+  /**
+   * Words reserved by PostgreSQL, MySQL or the SQL standard that are likely
+   * to be used as table or column names.
+   */
+  private static final Set<String> RESERVED_WORDS = Set
+    .of("all", "and", "any", "array", "as", "asc", "between", "both", "by", "case", "cast", "check", "collate",
+        "column", "constraint", "create", "cross", "current_date", "current_time", "current_timestamp",
+        "current_user", "default", "delete", "desc", "distinct", "do", "else", "end", "except", "exists", "false",
+        "fetch", "for", "foreign", "from", "full", "grant", "group", "having", "in", "index", "inner", "insert",
+        "intersect", "interval", "into", "is", "join", "key", "keys", "leading", "left", "like", "limit",
+        "natural", "not", "null", "offset", "on", "only", "or", "order", "outer", "primary", "range", "references",
+        "right", "row", "rows", "select", "session_user", "set", "some", "table", "then", "to", "trailing", "true",
+        "union", "unique", "update", "user", "using", "values", "when", "where", "window", "with");
+
+  private static final Pattern PLAIN_IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+  /**
+   * Quotes an identifier with {@code pQuote} when it is a reserved word or
+   * holds characters an unquoted identifier cannot have. Other identifiers
+   * are kept unquoted, so the database still folds their case. A dotted
+   * name is quoted part by part, keeping schema qualified tables working.
+   */
+  static String identifier(String pName, char pQuote) {
+
+    StringBuilder identifier = new StringBuilder(pName.length() + 2);
+    for (String part : pName.split("\\.", -1)) {
+      if (identifier.length() > 0) {
+        identifier.append('.');
+      }
+      if (PLAIN_IDENTIFIER.matcher(part).matches()
+          && !RESERVED_WORDS.contains(part.toLowerCase(Locale.ROOT))
+          || part.length() > 1 && part.charAt(0) == pQuote && part.charAt(part.length() - 1) == pQuote) {
+        identifier.append(part);
+      } else {
+        identifier.append(pQuote).append(part.replace(String.valueOf(pQuote),
+                                                      String.valueOf(pQuote) + pQuote))
+          .append(pQuote);
+      }
+    }
+    return identifier.toString();
+  }
+
+  /**
+   * Returns the column of a property: the 'x-column' extension when present,
+   * the snake case form of its name otherwise.
+   */
+  static String column(CodegenProperty pProperty) {
+    Object column = pProperty.vendorExtensions.get("x-column");
+    return column != null ? column.toString() : underscore(pProperty.baseName);
+  }
+
+  /**
+   * Returns an expression reading the property from the {@code row} variable.
+   */
+  static String rowGetter(CodegenProperty pProperty, Set<String> pEnumClassnames) {
+
+    String column = "\"" + column(pProperty) + "\"";
+    if (!pProperty.isContainer && ROW_GETTERS.containsKey(pProperty.dataType)) {
+      return "row." + ROW_GETTERS.get(pProperty.dataType) + "(" + column + ")";
+    }
+    if (pProperty.isByteArray) {
+      return "RowValues.bytes(row, " + column + ")";
+    }
+    if (JsonExpressions.isEnum(pProperty,
+                               pEnumClassnames)) {
+      return "RowValues.enumValue(row, " + column + ", " + pProperty.datatypeWithEnum + ".class)";
+    }
+    if (pProperty.isContainer || pProperty.isModel
+        || pProperty.complexType != null && !pProperty.isPrimitiveType && !pProperty.isFreeFormObject) {
+      return "RowValues.json(row, " + column + ", value -> "
+          + JsonExpressions.fromJsonValue(pProperty,
+                                          "value",
+                                          pEnumClassnames)
+          + ")";
+    }
+    return "(" + pProperty.dataType + ") row.getValue(" + column + ")";
+  }
+
+  /**
+   * Returns an expression producing the value bound in a tuple for the
+   * property held by {@code pValue}.
+   */
+  static String tupleValue(CodegenProperty pProperty, String pValue,
+    Set<String> pEnumClassnames) {
+
+    if (!pProperty.isContainer && ROW_GETTERS.containsKey(pProperty.dataType)) {
+      return pValue;
+    }
+    if (pProperty.isByteArray) {
+      return pValue + " == null ? null : io.vertx.core.buffer.Buffer.buffer(" + pValue + ")";
+    }
+    return pValue + " == null ? null : " + JsonExpressions.toJsonValue(pProperty,
+                                                                      pValue,
+                                                                      pEnumClassnames);
+  }
+
+  private SqlExpressions() {
+  }
+}
@@ -11,19 +11,26 @@
  */
 package br.com.c8tech.oas3.codegen.vertx;
 
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toMap;
 import static org.openapitools.codegen.utils.StringUtils.camelize;
+import static org.openapitools.codegen.utils.StringUtils.underscore;
 
 import java.io.File;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -31,12 +38,14 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.CliOption;
 import org.openapitools.codegen.CodegenConfig;
 import org.openapitools.codegen.CodegenConstants;
 import org.openapitools.codegen.CodegenModel;
 import org.openapitools.codegen.CodegenModelFactory;
 import org.openapitools.codegen.CodegenModelType;
 import org.openapitools.codegen.CodegenOperation;
+import org.openapitools.codegen.CodegenParameter;
 import org.openapitools.codegen.CodegenProperty;
 import org.openapitools.codegen.CodegenType;
 import org.openapitools.codegen.SupportingFile;
@@ -54,20 +63,32 @@ import org.openapitools.codegen.utils.ModelUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.samskivert.mustache.Mustache;
 
 import io.swagger.v3.core.util.Json;
 import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.examples.Example;
 import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
 import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.parser.util.SchemaTypeUtil;
 
 public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
     implements CodegenConfig {
 
+  private static final String APPLICATION_JSON      = "application/json";
+  private static final List<String> BINARY_MEDIA_TYPES = List.of("application/cbor",
+                                                                 "application/x-jackson-smile");
   private static final String DATA_OBJECT           = "DataObject";
   private static final String DEFAULT_LINKS_CLASS   = "Links";
   private static final String DEFAULT_META_CLASS    = "Meta";
@@ -77,8 +98,17 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
   private static final String JSON_OBJECT          = "JsonObject";
   private static final Logger LOG                  =
       LoggerFactory.getLogger(VertxOas3MicroserviceProjectGenerator.class);
+  private static final Map<String, String> NUMBER_METHODS = Map.of("Integer",
+                                                                   "intValue",
+                                                                   "Long",
+                                                                   "longValue",
+                                                                   "Float",
+                                                                   "floatValue",
+                                                                   "Double",
+                                                                   "doubleValue");
   private static final String PARENT_HANDLER_CLASS = "ParentHandlerClass";
   private static final String PARENT_MODEL_CLASS   = "ParentModelClass";
+  private static final Pattern PATH_PARAM_PATTERN  = Pattern.compile("\\{([^}]+)\\}");
 
   @SuppressWarnings("rawtypes")
   private static Boolean isAliasOfSimpleTypes(Schema schema) {
@@ -92,6 +122,12 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
 
   private Map<String, CodegenModel> models = new HashMap<>();
 
+  private boolean cursorPaginationFilesAdded;
+
+  private ExamplePayloadSynthesizer examplePayloads;
+
+  private final Set<String> invokerSupportingFiles = new HashSet<>();
+
   protected String resourceFolder = "src/main/resources";
 
   public VertxOas3MicroserviceProjectGenerator() {
@@ -102,7 +138,8 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
 
     modifyFeatureSet(features -> features
       .includeDocumentationFeatures(DocumentationFeature.Readme)
-      .wireFormatFeatures(EnumSet.noneOf(WireFormatFeature.class))
+      .wireFormatFeatures(EnumSet.of(WireFormatFeature.JSON,
+                                     WireFormatFeature.Custom))
       .securityFeatures(EnumSet.noneOf(SecurityFeature.class))
       .includeSchemaSupportFeatures(SchemaSupportFeature.Polymorphism)
       .clientModificationFeatures(EnumSet.noneOf(ClientModificationFeature.class)));
@@ -161,6 +198,80 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
                  this.getInvokerPackage());
     updateOption(CodegenConstants.API_PACKAGE,
                  apiPackage);
+
+    cliOptions.add(new CliOption(Constants.REQUEST_LOG_SAMPLE_RATE,
+      "Fraction (0.0 to 1.0) of requests logged with operationId, status and duration by the generated handlers. "
+          + "When 0 no request logging code is generated on the hot path.")
+            .defaultValue("0"));
+    cliOptions.add(CliOption.newBoolean(Constants.OPERATION_METRICS,
+                                        "Generates per-operation latency histograms and throughput counters, "
+                                            + "recorded around every operation handler and exposed through a metrics endpoint.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.GENERATE_LAUNCHER,
+                                        "Generates a launcher in the invoker package that builds the router once and "
+                                            + "deploys one HTTP server verticle instance per core.",
+                                        true));
+    cliOptions.add(CliOption.newBoolean(Constants.GENERATE_CLIENT,
+                                        "Generates, next to the server handlers, one asynchronous Vert.x WebClient "
+                                            + "based client per tag that reuses the generated models.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.BATCH_ENDPOINT,
+                                        "Generates a /batch endpoint running many operations in one request. The "
+                                            + "entries are sent concurrently to the service over a loopback connection, "
+                                            + "and their results streamed back in order. Requires vertx-web-client at "
+                                            + "runtime.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.WARMUP,
+                                        "Warms the service up with synthetic requests, sent over a loopback connection "
+                                            + "to the port actually bound, before its readiness route reports ready, and "
+                                            + "logs the latency measured meanwhile. Only the safe "
+                                            + "operations (GET, HEAD, OPTIONS) and the ones marked 'x-warmup: true' are "
+                                            + "called, unless the service runs on mocks or 'warmup.mutating' is set. "
+                                            + "Requires vertx-web-client at runtime.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.BINARY_WIRE_FORMATS,
+                                        "Generates a generic CBOR and Smile codec, used by every model, and Accept "
+                                            + "negotiation for the handlers. Request bodies and the default format remain "
+                                            + "JSON. "
+                                            + "Requires jackson-dataformat-cbor and jackson-dataformat-smile at runtime.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.SPARSE_FIELDSETS,
+                                        "Generates a field index and a long field mask per model, so handlers can "
+                                            + "parse a 'fields' query parameter once and serialize only the selected properties.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.TRACK_DIRTY_FIELDS,
+                                        "Makes the generated models track their modified properties in a bit mask and "
+                                            + "generates applyMergePatch(JsonParser) and toPatchJson() (JSON Merge Patch).",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.SQL_ROW_MAPPERS,
+                                        "Generates Vert.x SQL client row and tuple mappers for every model, and a "
+                                            + "prepared statement repository for the models with the 'x-persistence' extension.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.FLATTEN_ALL_OF,
+                                        "Copies the properties inherited through allOf into each model instead of "
+                                            + "extending the parent class. The type relationships are kept as "
+                                            + "interfaces of the generated Supertypes class.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.IMMUTABLE_MODELS,
+                                        "Generates immutable models, with final fields, a builder and a cached hash "
+                                            + "code, decoded from a JsonObject with a single constructor call.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.LAZY_MODEL_VIEWS,
+                                        "Generates a View class in every model that indexes the properties of a JSON "
+                                            + "buffer in one scan and decodes each one only when its getter is called.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.JMH_BENCHMARKS,
+                                        "Generates a JMH benchmark of the serialization of every model in the test "
+                                            + "tree. It needs the jmh-core and jmh-generator-annprocess test dependencies.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.LOAD_TEST_HARNESS,
+                                        "Generates a load generator in the test tree that starts the service and "
+                                            + "reports the latency percentiles and throughput of every operation.",
+                                        false));
+    cliOptions.add(CliOption.newBoolean(Constants.NATIVE_IMAGE_METADATA,
+                                        "Generates GraalVM native-image reflection, resource and build configuration "
+                                            + "for the generated models, converters and handlers.",
+                                        false));
     hideGenerationTimestamp = false;
     enablePostProcessFile = true;
 
@@ -346,6 +457,10 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
       result = apiFileFolder() + File.separator + "impl" + File.separator
           + toApiFilename(tag) + "Impl" + suffix;
 
+    } else if ("api-client.mustache".equals(templateName)) {
+      result = apiFileFolder() + File.separator + "client" + File.separator
+          + toApiFilename(tag) + "Client" + suffix;
+
     } else {
       result = super.apiFilename(templateName,
                                  tag);
@@ -530,6 +645,9 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
                                                 PARENT_HANDLER_CLASS);
     codegenOperation.vendorExtensions.put("x-codegen-parent-class",
                                           newType);
+    codegenOperation.vendorExtensions.put("x-codegen-log-constant",
+                                          "LOG_" + underscore(codegenOperation.operationId)
+                                            .toUpperCase(Locale.ROOT));
     String newImport = importMapping().get(newType);
 
     codegenOperation.vendorExtensions.put("x-codegen-parent-import",
@@ -539,9 +657,562 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
     codegenOperation.imports.add("RoutingContext");
     codegenOperation.imports.add("RequestParameters");
 
+    addClientVendorExtensions(codegenOperation,
+                              operation);
+    addCursorPaginationVendorExtensions(codegenOperation);
+    addFieldsParameterVendorExtensions(codegenOperation);
+    addMockResponseVendorExtensions(codegenOperation,
+                                    operation);
+    addSyntheticRequestVendorExtensions(codegenOperation,
+                                        operation,
+                                        servers);
+    codegenOperation.vendorExtensions.put("x-codegen-full-path",
+                                          ExamplePayloadSynthesizer.toJavaLiteral(basePath(servers)
+                                              + codegenOperation.path));
+
     return codegenOperation;
   }
 
+  /**
+   * Computes a valid request for the operation, used to drive load tests and
+   * warm ups. The required parameters and the request body get their example
+   * values or synthetic ones honouring their schemas. An operation marked with
+   * 'x-warmup: true' is warmed up even when its method is not safe.
+   *
+   * @param pCodegenOperation
+   *          the operation being generated
+   * @param pOperation
+   *          the operation of the specification
+   * @param pServers
+   *          the servers of the operation, whose base path prefixes the
+   *          request URI
+   */
+  private void addSyntheticRequestVendorExtensions(CodegenOperation pCodegenOperation,
+    Operation pOperation, List<Server> pServers) {
+
+    if (examplePayloads == null) {
+      examplePayloads = new ExamplePayloadSynthesizer(Map.of());
+    }
+    String path = pCodegenOperation.path;
+    StringBuilder query = new StringBuilder();
+    List<Map<String, String>> headers = new ArrayList<>();
+    List<String> cookies = new ArrayList<>();
+    if (pOperation.getParameters() != null) {
+      for (Parameter parameter : pOperation.getParameters()) {
+        Parameter resolved = ModelUtils.getReferencedParameter(this.openAPI,
+                                                               parameter);
+        if (resolved == null || resolved.getIn() == null
+            || (!Boolean.TRUE.equals(resolved.getRequired()) && !"path".equals(resolved.getIn()))) {
+          continue;
+        }
+        List<String> values = parameterValues(resolved);
+        if (values.isEmpty()) {
+          continue;
+        }
+        switch (resolved.getIn()) {
+          case "path":
+            path = path.replace("{" + resolved.getName() + "}",
+                                urlEncode(String.join(",",
+                                                      values)));
+            break;
+          case "query":
+            for (String value : values) {
+              query.append(query.length() == 0 ? '?' : '&')
+                .append(urlEncode(resolved.getName()))
+                .append('=')
+                .append(urlEncode(value));
+            }
+            break;
+          case "header":
+            headers.add(Map.of("name",
+                               ExamplePayloadSynthesizer.toJavaLiteral(resolved.getName()),
+                               "value",
+                               ExamplePayloadSynthesizer.toJavaLiteral(String.join(",",
+                                                                                   values))));
+            break;
+          case "cookie":
+            cookies.add(resolved.getName() + "=" + String.join(",",
+                                                               values));
+            break;
+          default:
+            break;
+        }
+      }
+    }
+    if (!cookies.isEmpty()) {
+      headers.add(Map.of("name",
+                         ExamplePayloadSynthesizer.toJavaLiteral("Cookie"),
+                         "value",
+                         ExamplePayloadSynthesizer.toJavaLiteral(String.join("; ",
+                                                                             cookies))));
+    }
+
+    String contentType = null;
+    String body = null;
+    RequestBody requestBody = pOperation.getRequestBody() == null ? null
+        : ModelUtils.getReferencedRequestBody(this.openAPI,
+                                              pOperation.getRequestBody());
+    Map.Entry<String, MediaType> content = preferredContent(requestBody == null ? null
+        : requestBody.getContent());
+    if (content != null) {
+      contentType = content.getKey();
+      if (contentType.startsWith("application/x-www-form-urlencoded")) {
+        body = formPayload(content.getValue());
+      } else if (contentType.startsWith("multipart/")) {
+        LOG.debug("No synthetic body is generated for the multipart request of operation '{}'.",
+                  pCodegenOperation.operationId);
+        contentType = null;
+      } else {
+        body = examplePayload(contentType,
+                              content.getValue());
+      }
+    }
+
+    pCodegenOperation.vendorExtensions.put("x-codegen-synthetic-uri",
+                                          ExamplePayloadSynthesizer.toJavaLiteral(basePath(pServers) + path
+                                              + query));
+    pCodegenOperation.vendorExtensions.put("x-codegen-synthetic-headers",
+                                          headers);
+    pCodegenOperation.vendorExtensions.put("x-codegen-synthetic-content-type",
+                                          contentType == null ? "null"
+                                              : ExamplePayloadSynthesizer.toJavaLiteral(contentType));
+    pCodegenOperation.vendorExtensions.put("x-codegen-synthetic-body",
+                                          body == null ? "null" : ExamplePayloadSynthesizer.toJavaLiteral(body));
+    Object warmup = pOperation.getExtensions() == null ? null : pOperation.getExtensions().get("x-warmup");
+    if (warmup != null && Boolean.parseBoolean(warmup.toString())) {
+      pCodegenOperation.vendorExtensions.put("x-codegen-warmup",
+                                            true);
+    }
+  }
+
+  private List<String> parameterValues(Parameter pParameter) {
+
+    JsonNode value = null;
+    if (pParameter.getExample() != null) {
+      value = Json.mapper().valueToTree(pParameter.getExample());
+    } else if (pParameter.getSchema() != null) {
+      value = examplePayloads.synthesize(fromProperty(pParameter.getName(),
+                                                      pParameter.getSchema()));
+    }
+    List<String> values = new ArrayList<>();
+    if (value == null || value.isNull()) {
+      return values;
+    }
+    if (value.isArray()) {
+      value.forEach(item -> values.add(item.isValueNode() ? item.asText() : item.toString()));
+    } else {
+      values.add(value.isValueNode() ? value.asText() : value.toString());
+    }
+    return values;
+  }
+
+  private String formPayload(MediaType pMediaType) {
+
+    if (pMediaType.getSchema() == null) {
+      return null;
+    }
+    JsonNode form = examplePayloads.synthesize(fromProperty("form",
+                                                            pMediaType.getSchema()));
+    if (form == null || !form.isObject()) {
+      return null;
+    }
+    StringBuilder payload = new StringBuilder();
+    form.fields().forEachRemaining(field -> {
+      if (payload.length() > 0) {
+        payload.append('&');
+      }
+      JsonNode value = field.getValue();
+      payload.append(urlEncode(field.getKey()))
+        .append('=')
+        .append(urlEncode(value.isValueNode() ? value.asText() : value.toString()));
+    });
+    return payload.toString();
+  }
+
+  private String basePath(List<Server> pServers) {
+
+    List<Server> servers = pServers != null && !pServers.isEmpty() ? pServers : this.openAPI.getServers();
+    if (servers == null || servers.isEmpty() || servers.get(0).getUrl() == null) {
+      return "";
+    }
+    String url = servers.get(0).getUrl();
+    int scheme = url.indexOf("://");
+    if (scheme >= 0) {
+      int pathStart = url.indexOf('/',
+                                  scheme + 3);
+      url = pathStart < 0 ? "" : url.substring(pathStart);
+    }
+    if (url.contains("{")) {
+      return "";
+    }
+    return url.endsWith("/") ? url.substring(0,
+                                             url.length() - 1)
+        : url;
+  }
+
+  private static String urlEncode(String pValue) {
+    return URLEncoder.encode(pValue,
+                             StandardCharsets.UTF_8)
+      .replace("+",
+               "%20");
+  }
+
+  /**
+   * Computes the responses replayed by the mock handler of an operation, one
+   * per declared status. The body is the example of the response media type
+   * when there is one, or a payload synthesized from its schema. The first
+   * successful response is the default one.
+   *
+   * @param pCodegenOperation
+   *          the operation being generated
+   * @param pOperation
+   *          the operation of the specification
+   */
+  private void addMockResponseVendorExtensions(CodegenOperation pCodegenOperation,
+    Operation pOperation) {
+
+    if (examplePayloads == null) {
+      examplePayloads = new ExamplePayloadSynthesizer(Map.of());
+    }
+    List<Map<String, Object>> responses = new ArrayList<>();
+    if (pOperation.getResponses() != null) {
+      boolean onlyDefault = pOperation.getResponses().size() == 1;
+      for (Map.Entry<String, ApiResponse> entry : pOperation.getResponses().entrySet()) {
+        int status = mockStatus(entry.getKey(),
+                                onlyDefault);
+        ApiResponse response = ModelUtils.getReferencedApiResponse(this.openAPI,
+                                                                        entry.getValue());
+        Map<String, Object> mockResponse = new HashMap<>();
+        mockResponse.put("status",
+                         status);
+        mockResponse.put("contentType",
+                         "null");
+        mockResponse.put("body",
+                         "null");
+        Map.Entry<String, MediaType> content = preferredContent(response == null ? null
+            : response.getContent());
+        if (content != null) {
+          String body = examplePayload(content.getKey(),
+                                       content.getValue());
+          mockResponse.put("contentType",
+                           ExamplePayloadSynthesizer.toJavaLiteral(content.getKey()));
+          if (body != null) {
+            mockResponse.put("body",
+                             ExamplePayloadSynthesizer.toJavaLiteral(body));
+          }
+        }
+        responses.add(mockResponse);
+      }
+    }
+    if (responses.isEmpty()) {
+      responses.add(Map.of("status",
+                           204,
+                           "contentType",
+                           "null",
+                           "body",
+                           "null"));
+    }
+    // the default response goes first
+    responses.sort(Comparator.comparingInt(response -> {
+      int status = (Integer) response.get("status");
+      return status >= 200 && status < 300 ? status : status + 1000;
+    }));
+    pCodegenOperation.vendorExtensions.put("x-codegen-mock-constant",
+                                          underscore(pCodegenOperation.operationId).toUpperCase(Locale.ROOT));
+    pCodegenOperation.vendorExtensions.put("x-codegen-mock-responses",
+                                          responses);
+  }
+
+  private static int mockStatus(String pCode, boolean pOnlyDefault) {
+
+    if ("default".equalsIgnoreCase(pCode)) {
+      return pOnlyDefault ? 200 : 500;
+    }
+    if (pCode.length() == 3 && Character.isDigit(pCode.charAt(0))) {
+      return Character.isDigit(pCode.charAt(1)) && Character.isDigit(pCode.charAt(2))
+          ? Integer.parseInt(pCode)
+          : (pCode.charAt(0) - '0') * 100;
+    }
+    return 200;
+  }
+
+  private static Map.Entry<String, MediaType> preferredContent(Content pContent) {
+
+    if (pContent == null || pContent.isEmpty()) {
+      return null;
+    }
+    for (Map.Entry<String, MediaType> entry : pContent.entrySet()) {
+      if (entry.getKey().startsWith("application/json")) {
+        return entry;
+      }
+    }
+    return pContent.entrySet().iterator().next();
+  }
+
+  /**
+   * Returns the example payload of a media type: its declared example, the
+   * first of its named examples or, failing those, a payload synthesized from
+   * its schema. JSON media types get compact JSON, other types get the raw
+   * text of string values.
+   */
+  private String examplePayload(String pContentType, MediaType pMediaType) {
+
+    Object example = pMediaType.getExample();
+    if (example == null && pMediaType.getExamples() != null) {
+      example = pMediaType.getExamples()
+        .values()
+        .stream()
+        .map(Example::getValue)
+        .filter(value -> value != null)
+        .findFirst()
+        .orElse(null);
+    }
+    if (example instanceof String && !pContentType.contains("json")) {
+      return (String) example;
+    }
+    if (example != null) {
+      try {
+        return Json.mapper().writeValueAsString(example);
+      }
+      catch (JsonProcessingException e) {
+        LOG.warn("Ignoring example of media type '{}': {}",
+                 pContentType,
+                 e.getMessage());
+      }
+    }
+    if (pMediaType.getSchema() == null) {
+      return null;
+    }
+    JsonNode synthesized = examplePayloads.synthesize(fromProperty("body",
+                                                                   pMediaType.getSchema()));
+    if (synthesized == null) {
+      return null;
+    }
+    return synthesized.isTextual() && !pContentType.contains("json") ? synthesized.textValue()
+        : examplePayloads.toJson(synthesized);
+  }
+
+  /**
+   * Flags the operations with a 'fields' query parameter whose response model
+   * has a field mask, so the handler parses the mask once per request. On a
+   * cursor paginated operation the mask is the one of the page item model.
+   *
+   * @param pCodegenOperation
+   *          the operation being generated
+   */
+  private void addFieldsParameterVendorExtensions(CodegenOperation pCodegenOperation) {
+
+    boolean paginated = pCodegenOperation.vendorExtensions.containsKey("x-codegen-cursor-pagination");
+    String baseType = paginated ? (String) pCodegenOperation.vendorExtensions.get("x-codegen-page-item-model")
+        : pCodegenOperation.returnBaseType;
+    if (baseType == null || pCodegenOperation.returnTypeIsPrimitive
+        || "map".equals(pCodegenOperation.returnContainer)) {
+      return;
+    }
+    for (CodegenParameter param : pCodegenOperation.queryParams) {
+      if ("fields".equals(param.baseName)) {
+        for (CodegenModel model : models.values()) {
+          if (!baseType.equals(model.classname) || !model.vendorExtensions.containsKey("x-codegen-field-mask")) {
+            continue;
+          }
+          if (paginated) {
+            // the mask selects the fields of each page item, not of the envelope
+            pCodegenOperation.vendorExtensions.put("x-codegen-page-fields-mask-type",
+                                                   pCodegenOperation.vendorExtensions.get("x-codegen-page-item-type"));
+          } else {
+            pCodegenOperation.vendorExtensions.put("x-codegen-fields-mask-type",
+                                                   baseType);
+            pCodegenOperation.vendorExtensions.put(pCodegenOperation.returnContainer == null
+                ? "x-codegen-stub-object"
+                : "x-codegen-stub-array",
+                                                   true);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Flags the operations marked with 'x-pagination: cursor' and computes the
+   * page item type and the arguments used by the generated page iterator.
+   * The response must be an object holding the items in a 'data' array, as
+   * the generated Page is serialized. The pagination support files are added
+   * the first time such an operation is found.
+   *
+   * @param pCodegenOperation
+   *          the operation being generated
+   */
+  private void addCursorPaginationVendorExtensions(CodegenOperation pCodegenOperation) {
+
+    Object pagination = pCodegenOperation.vendorExtensions.get("x-pagination");
+    if (pagination == null || !"cursor".equalsIgnoreCase(pagination.toString())) {
+      return;
+    }
+    CodegenProperty data = null;
+    String baseType = pCodegenOperation.returnBaseType;
+    if (baseType != null && pCodegenOperation.returnContainer == null) {
+      for (CodegenModel model : models.values()) {
+        if (baseType.equals(model.classname)) {
+          for (CodegenProperty property : model.vars) {
+            if ("data".equals(property.baseName) && property.isListContainer) {
+              data = property;
+            }
+          }
+        }
+      }
+    }
+    if (data == null) {
+      LOG.warn("Operation '{}' uses cursor pagination but its response is not an object with a 'data' array. "
+          + "It will be generated without pagination support.",
+               pCodegenOperation.operationId);
+      return;
+    }
+    pCodegenOperation.vendorExtensions.put("x-codegen-cursor-pagination",
+                                           true);
+    pCodegenOperation.vendorExtensions.put("x-codegen-stub-object",
+                                           true);
+
+    String itemType = "Object";
+    String itemDecoder = "item -> item";
+    CodegenProperty items = data.items;
+    if (items != null && !items.isContainer && !items.isEnum) {
+      String numberMethod = NUMBER_METHODS.get(items.dataType);
+      if (items.isModel || (items.complexType != null && models.containsKey(items.complexType)
+          && !models.get(items.complexType).isEnum)) {
+        itemType = toModelImport(items.complexType);
+        itemDecoder = "item -> new " + itemType + "((JsonObject) item)";
+        pCodegenOperation.vendorExtensions.put("x-codegen-page-item-model",
+                                               items.complexType);
+      } else if (numberMethod != null) {
+        itemType = items.dataType;
+        itemDecoder = "item -> ((Number) item)." + numberMethod + "()";
+      } else if ("String".equals(items.dataType) || "Boolean".equals(items.dataType)) {
+        itemType = items.dataType;
+        itemDecoder = "item -> (" + itemType + ") item";
+      }
+    }
+    pCodegenOperation.vendorExtensions.put("x-codegen-page-item-type",
+                                           itemType);
+    pCodegenOperation.vendorExtensions.put("x-codegen-page-item-decoder",
+                                           itemDecoder);
+
+    StringBuilder params = new StringBuilder();
+    StringBuilder arguments = new StringBuilder();
+    boolean hasCursorParam = false;
+    for (CodegenParameter param : pCodegenOperation.allParams) {
+      if (arguments.length() > 0) {
+        arguments.append(", ");
+      }
+      if (param.isQueryParam && "cursor".equals(param.baseName)) {
+        hasCursorParam = true;
+        arguments.append("cursor == null ? null : cursor.encode()");
+        continue;
+      }
+      if (params.length() > 0) {
+        params.append(", ");
+      }
+      params.append(param.dataType).append(' ').append(param.paramName);
+      arguments.append(param.paramName);
+    }
+    if (hasCursorParam) {
+      pCodegenOperation.vendorExtensions.put("x-codegen-page-iterator",
+                                             true);
+      pCodegenOperation.vendorExtensions.put("x-codegen-page-params",
+                                             params.toString());
+      pCodegenOperation.vendorExtensions.put("x-codegen-page-arguments",
+                                             arguments.toString());
+    } else {
+      LOG.warn("Operation '{}' uses cursor pagination but has no 'cursor' query parameter. "
+          + "No page iterator will be generated for it.",
+               pCodegenOperation.operationId);
+    }
+
+    if (!cursorPaginationFilesAdded) {
+      cursorPaginationFilesAdded = true;
+      additionalProperties.put("cursorPagination",
+                               true);
+      supportingFiles.add(new SupportingFile("pagination/cursor.mustache",
+        invokerFolder(),
+        "Cursor.java"));
+      supportingFiles.add(new SupportingFile("pagination/pageRequest.mustache",
+        invokerFolder(),
+        "PageRequest.java"));
+      supportingFiles.add(new SupportingFile("pagination/page.mustache",
+        invokerFolder(),
+        "Page.java"));
+      supportingFiles.add(new SupportingFile("pagination/cursorPageIterator.mustache",
+        invokerFolder(),
+        "CursorPageIterator.java"));
+    }
+  }
+
+  /**
+   * Computes the Java expressions used by the client template to build the
+   * request path and to decode the response of an operation.
+   *
+   * @param pCodegenOperation
+   *          the operation being generated
+   * @param pOperation
+   *          the OAS operation, used for the 'x-timeout' extension
+   */
+  private void addClientVendorExtensions(CodegenOperation pCodegenOperation,
+    Operation pOperation) {
+
+    Map<String, String> pathParamNames = new HashMap<>();
+    for (CodegenParameter param : pCodegenOperation.pathParams) {
+      pathParamNames.put(param.baseName,
+                         param.paramName);
+    }
+    StringBuilder pathExpression = new StringBuilder("\"");
+    Matcher matcher = PATH_PARAM_PATTERN.matcher(pCodegenOperation.path);
+    int last = 0;
+    while (matcher.find()) {
+      pathExpression.append(pCodegenOperation.path, last, matcher.start())
+        .append("\" + encodePathSegment(String.valueOf(")
+        .append(pathParamNames.getOrDefault(matcher.group(1),
+                                            toParamName(matcher.group(1))))
+        .append(")) + \"");
+      last = matcher.end();
+    }
+    pathExpression.append(pCodegenOperation.path.substring(last)).append('"');
+    pCodegenOperation.vendorExtensions.put("x-codegen-client-path",
+                                           pathExpression.toString());
+
+    String returnType = "Buffer";
+    String decoder = "HttpResponse::body";
+    String baseType = pCodegenOperation.returnBaseType;
+    if (pCodegenOperation.returnType == null) {
+      returnType = "Void";
+      decoder = "response -> null";
+    } else if (baseType != null && !pCodegenOperation.returnTypeIsPrimitive
+        && !languageSpecificPrimitives.contains(baseType) && !importMapping.containsKey(baseType)) {
+      if (pCodegenOperation.returnContainer == null) {
+        returnType = baseType;
+        decoder = "response -> { JsonObject json = jsonObject(response); return json == null ? null : new "
+            + baseType + "(json); }";
+      } else if ("array".equals(pCodegenOperation.returnContainer)
+          || "list".equals(pCodegenOperation.returnContainer)) {
+        returnType = "List<" + baseType + ">";
+        decoder = "response -> jsonArray(response).stream().map(item -> new " + baseType
+            + "((JsonObject) item)).collect(Collectors.toList())";
+      }
+    } else if ("String".equals(pCodegenOperation.returnType)) {
+      returnType = "String";
+      decoder = "HttpResponse::bodyAsString";
+    }
+    pCodegenOperation.vendorExtensions.put("x-codegen-client-return-type",
+                                           returnType);
+    pCodegenOperation.vendorExtensions.put("x-codegen-client-decoder",
+                                           decoder);
+
+    Object timeout = pOperation.getExtensions() == null ? null
+        : pOperation.getExtensions().get("x-timeout");
+    if (timeout != null) {
+      pCodegenOperation.vendorExtensions.put("x-codegen-client-timeout",
+                                             timeout.toString());
+    }
+  }
+
   /**
    * Determine all of the types in the model definitions (schemas) that are
    * aliases of simple types.
@@ -705,9 +1376,667 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
 
   @Override
   public Map<String, Object> postProcessAllModels(Map<String, Object> pObjs) {
+
+    List<CodegenModel> allModels = collectModels(pObjs);
+    if (Boolean.TRUE.equals(additionalProperties.get(Constants.FLATTEN_ALL_OF))) {
+      flattenAllOf(pObjs,
+                   allModels);
+    }
+    Set<String> enumClassnames = new HashSet<>();
+    for (CodegenModel model : allModels) {
+      if (model.isEnum) {
+        enumClassnames.add(model.classname);
+      }
+    }
+    boolean fieldMasks = Boolean.TRUE
+      .equals(additionalProperties.get(Constants.SPARSE_FIELDSETS))
+        || Boolean.TRUE.equals(additionalProperties.get(Constants.TRACK_DIRTY_FIELDS));
+    boolean sqlRowMappers = Boolean.TRUE
+      .equals(additionalProperties.get(Constants.SQL_ROW_MAPPERS));
+    boolean jmhBenchmarks = Boolean.TRUE
+      .equals(additionalProperties.get(Constants.JMH_BENCHMARKS));
+    boolean immutableModels = Boolean.TRUE
+      .equals(additionalProperties.get(Constants.IMMUTABLE_MODELS));
+    boolean lazyModelViews = Boolean.TRUE
+      .equals(additionalProperties.get(Constants.LAZY_MODEL_VIEWS));
+    Set<String> extendedModels = new HashSet<>();
+    Set<String> modelClassnames = new HashSet<>();
+    for (CodegenModel model : allModels) {
+      if (model.parent != null) {
+        extendedModels.add(model.parent);
+      }
+      modelClassnames.add(model.classname);
+    }
+    String viewClassname = viewClassname(modelClassnames);
+    examplePayloads = new ExamplePayloadSynthesizer(allModels.stream()
+      .collect(toMap(model -> model.classname,
+                     model -> model,
+                     (first, second) -> first)));
+    for (CodegenModel model : allModels) {
+      if (immutableModels) {
+        addImmutableVendorExtensions(model,
+                                     enumClassnames,
+                                     extendedModels);
+      }
+      if (lazyModelViews) {
+        addViewVendorExtensions(model,
+                                enumClassnames,
+                                viewClassname);
+      }
+      if (fieldMasks) {
+        addFieldMaskVendorExtensions(model,
+                                     enumClassnames);
+      }
+      if (sqlRowMappers) {
+        addSqlVendorExtensions(model,
+                               enumClassnames);
+      }
+      if (jmhBenchmarks) {
+        addBenchmarkVendorExtensions(model,
+                                     examplePayloads);
+      }
+    }
     return pObjs;
   }
 
+  /**
+   * Marks a concrete model to be generated immutable and computes the
+   * expressions its constructors, builder and toJson use. Models taking part
+   * in an allOf hierarchy stay mutable, unless the hierarchy is flattened.
+   *
+   * @param pCodegenModel
+   *          the model
+   * @param pEnumClassnames
+   *          the class names of the enum models
+   * @param pExtendedModels
+   *          the class names of the models extended by another one
+   */
+  private void addImmutableVendorExtensions(CodegenModel pCodegenModel, Set<String> pEnumClassnames,
+    Set<String> pExtendedModels) {
+
+    if (pCodegenModel.isEnum || pCodegenModel.vendorExtensions.containsKey("x-codegen-isInterface")
+        || pCodegenModel.vendorExtensions.containsKey("x-codegen-isAbstract")
+        || !pCodegenModel.oneOf.isEmpty() || !pCodegenModel.anyOf.isEmpty()) {
+      return;
+    }
+    if (pCodegenModel.parent != null || pExtendedModels.contains(pCodegenModel.classname)) {
+      LOG.warn("Model '{}' takes part in an allOf hierarchy and will be generated mutable. Enable option '{}' to make it immutable.",
+               pCodegenModel.classname,
+               Constants.FLATTEN_ALL_OF);
+      return;
+    }
+    pCodegenModel.vendorExtensions.put("x-codegen-immutable",
+                                       true);
+    for (CodegenProperty property : pCodegenModel.vars) {
+      String unmodifiable = null;
+      String copy = null;
+      if (property.isListContainer) {
+        unmodifiable = "java.util.Collections.unmodifiableList";
+        copy = "new java.util.ArrayList<>";
+      } else if ("set".equals(property.containerType)) {
+        unmodifiable = "java.util.Collections.unmodifiableSet";
+        copy = "new java.util.LinkedHashSet<>";
+      } else if (property.isMapContainer) {
+        unmodifiable = "java.util.Collections.unmodifiableMap";
+        copy = "new java.util.LinkedHashMap<>";
+      }
+      property.vendorExtensions.put("x-codegen-unmodifiable",
+                                    unmodifiable == null ? property.name
+                                        : property.name + " == null ? null : " + unmodifiable + "("
+                                            + property.name + ")");
+      property.vendorExtensions.put("x-codegen-copy",
+                                    copy == null ? property.name
+                                        : property.name + " == null ? null : " + copy + "(" + property.name
+                                            + ")");
+      property.vendorExtensions.put("x-codegen-decoder",
+                                    "decode" + camelize(property.name));
+      property.vendorExtensions.put("x-codegen-from-json",
+                                    JsonExpressions.fromJsonValue(property,
+                                                                  "pValue",
+                                                                  pEnumClassnames));
+      property.vendorExtensions.put("x-codegen-to-json",
+                                    JsonExpressions.toJsonValue(property,
+                                                                "this." + property.name,
+                                                                pEnumClassnames));
+    }
+  }
+
+  /**
+   * Marks a concrete model to get a lazy view and computes the index of each
+   * property and the expression decoding its JSON value. Models extending
+   * another one are skipped, as their inherited properties are not among their
+   * vars, unless the hierarchy is flattened.
+   *
+   * @param pCodegenModel
+   *          the model
+   * @param pEnumClassnames
+   *          the class names of the enum models
+   * @param pViewClassname
+   *          the name of the nested view class
+   */
+  private static void addViewVendorExtensions(CodegenModel pCodegenModel, Set<String> pEnumClassnames,
+                                              String pViewClassname) {
+
+    if (pCodegenModel.isEnum || pCodegenModel.vendorExtensions.containsKey("x-codegen-isInterface")
+        || pCodegenModel.vendorExtensions.containsKey("x-codegen-isAbstract")
+        || !pCodegenModel.oneOf.isEmpty() || !pCodegenModel.anyOf.isEmpty()
+        || pCodegenModel.vars.isEmpty()) {
+      return;
+    }
+    if (pCodegenModel.parent != null) {
+      LOG.warn("Model '{}' extends '{}' and will be generated without a view. Enable option '{}' to get one.",
+               pCodegenModel.classname,
+               pCodegenModel.parent,
+               Constants.FLATTEN_ALL_OF);
+      return;
+    }
+    pCodegenModel.vendorExtensions.put("x-codegen-view",
+                                       true);
+    pCodegenModel.vendorExtensions.put("x-codegen-view-class",
+                                       pViewClassname);
+    pCodegenModel.vendorExtensions.put("x-codegen-view-count",
+                                       pCodegenModel.vars.size());
+    int index = 0;
+    for (CodegenProperty property : pCodegenModel.vars) {
+      property.vendorExtensions.put("x-codegen-view-index",
+                                    index++);
+      property.vendorExtensions.put("x-codegen-view-from-json",
+                                    JsonExpressions.fromJsonValue(property,
+                                                                  "json",
+                                                                  pEnumClassnames));
+    }
+  }
+
+  /**
+   * Returns the name of the nested view classes: {@code View}, unless a model
+   * is named so, as the nested class would then hide it in every model, or
+   * clash with the model itself.
+   */
+  private static String viewClassname(Set<String> pModelClassnames) {
+    String name = "View";
+    for (int i = 2; pModelClassnames.contains(name); i++) {
+      name = (i == 2 ? "Json" : "Json" + i) + "View";
+    }
+    if (!"View".equals(name)) {
+      LOG.warn("A model is named 'View', the lazy views will be generated as nested classes named '{}'.",
+               name);
+    }
+    return name;
+  }
+
+  /**
+   * Marks the concrete models that can be benchmarked and stores the Java
+   * literal of the example payload their fixture is decoded from.
+   */
+  private static void addBenchmarkVendorExtensions(CodegenModel pCodegenModel,
+    ExamplePayloadSynthesizer pSynthesizer) {
+
+    if (pCodegenModel.isEnum || pCodegenModel.vendorExtensions.containsKey("x-codegen-isInterface")
+        || pCodegenModel.vendorExtensions.containsKey("x-codegen-isAbstract")
+        || !pCodegenModel.oneOf.isEmpty() || !pCodegenModel.anyOf.isEmpty()) {
+      return;
+    }
+    ObjectNode example = pSynthesizer.synthesize(pCodegenModel);
+    if (example == null) {
+      return;
+    }
+    pCodegenModel.vendorExtensions.put("x-codegen-benchmark",
+                                       true);
+    pCodegenModel.vendorExtensions.put("x-codegen-example-literal",
+                                       ExamplePayloadSynthesizer.toJavaLiteral(pSynthesizer.toJson(example)));
+  }
+
+  /**
+   * Computes the row mapping expressions of a model and, when it carries the
+   * 'x-persistence' extension, the SQL statements of its repository. The
+   * extension may be {@code true} or an object with the optional 'table',
+   * 'id' (property name), 'placeholder' ('$' for numbered PostgreSQL
+   * placeholders, the default, or '?') and 'quote' (the identifier quote
+   * character, '"' with numbered placeholders and '`' for MySQL otherwise)
+   * entries. Reserved words used as table or column names, such as the
+   * 'user' or 'order' tables of the User and Order models, are quoted.
+   *
+   * @param pCodegenModel
+   *          the model
+   * @param pEnumClassnames
+   *          the class names of the enum models
+   */
+  @SuppressWarnings("unchecked")
+  private void addSqlVendorExtensions(CodegenModel pCodegenModel,
+    Set<String> pEnumClassnames) {
+
+    if (pCodegenModel.isEnum || pCodegenModel.vendorExtensions.containsKey("x-codegen-isInterface")
+        || pCodegenModel.vendorExtensions.containsKey("x-codegen-isAbstract")
+        || pCodegenModel.vars.isEmpty()) {
+      return;
+    }
+    if (pCodegenModel.parent != null) {
+      LOG.warn("Model '{}' extends '{}'. No row mapper will be generated for it.",
+               pCodegenModel.classname,
+               pCodegenModel.parent);
+      return;
+    }
+    pCodegenModel.vendorExtensions.put("x-codegen-row-mapper",
+                                       true);
+    for (CodegenProperty property : pCodegenModel.vars) {
+      property.vendorExtensions.put("x-codegen-column",
+                                    SqlExpressions.column(property));
+      property.vendorExtensions.put("x-codegen-row-getter",
+                                    SqlExpressions.rowGetter(property,
+                                                             pEnumClassnames));
+      property.vendorExtensions.put("x-codegen-tuple-value",
+                                    SqlExpressions.tupleValue(property,
+                                                              "this." + property.name,
+                                                              pEnumClassnames));
+    }
+
+    Object persistence = pCodegenModel.vendorExtensions.get("x-persistence");
+    if (persistence == null || Boolean.FALSE.equals(persistence)) {
+      return;
+    }
+    Map<String, Object> settings =
+        persistence instanceof Map ? (Map<String, Object>) persistence : Map.of();
+    String table = String.valueOf(settings.getOrDefault("table",
+                                                        underscore(pCodegenModel.classname)));
+    String idName = String.valueOf(settings.getOrDefault("id",
+                                                         "id"));
+    boolean numbered = !"?".equals(settings.getOrDefault("placeholder",
+                                                          "$"));
+    char quote = String.valueOf(settings.getOrDefault("quote",
+                                                      numbered ? "\"" : "`"))
+      .charAt(0);
+    CodegenProperty id = null;
+    for (CodegenProperty property : pCodegenModel.vars) {
+      if (idName.equals(property.baseName) || idName.equals(property.name)) {
+        id = property;
+      }
+    }
+    if (id == null) {
+      LOG.warn("Model '{}' has no '{}' property to be used as identifier. No repository will be generated for it.",
+               pCodegenModel.classname,
+               idName);
+      return;
+    }
+
+    List<String> columns = new ArrayList<>();
+    List<String> updates = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    int position = 1;
+    for (CodegenProperty property : pCodegenModel.vars) {
+      columns.add(SqlExpressions.identifier(SqlExpressions.column(property),
+                                            quote));
+      values.add(numbered ? "$" + position : "?");
+      position++;
+    }
+    position = 1;
+    for (CodegenProperty property : pCodegenModel.vars) {
+      if (property != id) {
+        updates.add(SqlExpressions.identifier(SqlExpressions.column(property),
+                                              quote)
+            + " = " + (numbered ? "$" + position : "?"));
+        position++;
+      }
+      property.vendorExtensions.put("x-codegen-is-id",
+                                    property == id);
+    }
+    String idColumn = SqlExpressions.identifier(SqlExpressions.column(id),
+                                                quote);
+    String quotedTable = SqlExpressions.identifier(table,
+                                                   quote);
+    String selectColumns = String.join(", ",
+                                       columns);
+    pCodegenModel.vendorExtensions.put("x-codegen-repository",
+                                       true);
+    pCodegenModel.vendorExtensions.put("x-codegen-sql-table",
+                                       table);
+    // the statements are emitted as Java string literals
+    pCodegenModel.vendorExtensions.put("x-codegen-sql-columns",
+                                       ExamplePayloadSynthesizer.toJavaLiteral(selectColumns));
+    pCodegenModel.vendorExtensions.put("x-codegen-sql-insert",
+                                       ExamplePayloadSynthesizer.toJavaLiteral("INSERT INTO " + quotedTable + " (" + selectColumns
+                                           + ") VALUES (" + String.join(", ",
+                                                                        values)
+                                           + ")"));
+    pCodegenModel.vendorExtensions.put("x-codegen-sql-select-by-id",
+                                       ExamplePayloadSynthesizer.toJavaLiteral("SELECT " + selectColumns + " FROM " + quotedTable
+                                           + " WHERE " + idColumn + " = " + (numbered ? "$1" : "?")));
+    pCodegenModel.vendorExtensions.put("x-codegen-sql-update",
+                                       ExamplePayloadSynthesizer.toJavaLiteral("UPDATE " + quotedTable + " SET "
+                                           + String.join(", ",
+                                                         updates)
+                                           + " WHERE " + idColumn + " = " + (numbered ? "$" + position : "?")));
+    pCodegenModel.vendorExtensions.put("x-codegen-sql-delete-by-id",
+                                       ExamplePayloadSynthesizer.toJavaLiteral("DELETE FROM " + quotedTable + " WHERE " + idColumn
+                                           + " = " + (numbered ? "$1" : "?")));
+    pCodegenModel.vendorExtensions.put("x-codegen-id-type",
+                                       id.datatypeWithEnum);
+    pCodegenModel.vendorExtensions.put("x-codegen-id-name",
+                                       id.name);
+    pCodegenModel.vendorExtensions.put("x-codegen-id-tuple-value",
+                                       SqlExpressions.tupleValue(id,
+                                                                 "pId",
+                                                                 pEnumClassnames));
+    for (CodegenProperty property : pCodegenModel.vars) {
+      property.vendorExtensions.put("x-codegen-model-tuple-value",
+                                    SqlExpressions.tupleValue(property,
+                                                              "pModel." + property.name,
+                                                              pEnumClassnames));
+    }
+  }
+
+  /**
+   * Copies the inherited properties into every model with an allOf parent,
+   * so the model is generated without a superclass: a single converter and
+   * equals, hashCode and toString methods over all its fields.
+   * <p>
+   * The type relationships are kept through the interfaces of the
+   * 'Supertypes' class, holding the getters of every model extended by
+   * another one. A parent implements its own interface, which extends the
+   * interface of its parent, and the flattened children implement the
+   * interface of their former parent. Inner enums of the inherited properties
+   * are reused from the model declaring them.
+   *
+   * @param pObjs
+   *          the model maps, whose imports are completed with the ones of the
+   *          parents
+   * @param pAllModels
+   *          all the models
+   */
+  @SuppressWarnings("unchecked")
+  private void flattenAllOf(Map<String, Object> pObjs, List<CodegenModel> pAllModels) {
+
+    // models are mutated below, so they are keyed by identity
+    Map<CodegenModel, List<Map<String, String>>> importsByModel = new IdentityHashMap<>();
+    for (Object entry : pObjs.values()) {
+      Map<String, Object> modelObjs = (Map<String, Object>) entry;
+      List<Map<String, Object>> modelMaps = (List<Map<String, Object>>) modelObjs.get("models");
+      if (modelMaps != null) {
+        for (Map<String, Object> modelMap : modelMaps) {
+          importsByModel.put((CodegenModel) modelMap.get("model"),
+                             (List<Map<String, String>>) modelObjs.get("imports"));
+        }
+      }
+    }
+    Map<CodegenModel, CodegenModel> parents = new IdentityHashMap<>();
+    for (CodegenModel model : pAllModels) {
+      if (model.parentModel != null) {
+        parents.put(model,
+                    model.parentModel);
+      }
+    }
+    if (parents.isEmpty()) {
+      return;
+    }
+
+    Map<CodegenModel, List<CodegenProperty>> flattenedVars = new IdentityHashMap<>();
+    Map<CodegenModel, Set<String>> redeclaredNames = new IdentityHashMap<>();
+    for (CodegenModel model : parents.keySet()) {
+      flattenVars(model,
+                  parents,
+                  flattenedVars,
+                  redeclaredNames);
+    }
+
+    Pattern modelNames = Pattern.compile("(?<![\\w.])("
+        + pAllModels.stream()
+          .map(model -> Pattern.quote(model.classname))
+          .sorted(Comparator.comparingInt(String::length)
+            .reversed())
+          .collect(joining("|"))
+        + ")(?!\\w)");
+    Set<CodegenModel> supertypes = Collections.newSetFromMap(new IdentityHashMap<>());
+    supertypes.addAll(parents.values());
+    for (CodegenModel supertype : supertypes) {
+      Map<String, String> qualifiedNames = new HashMap<>(Map.of("List",
+                                                                "java.util.List",
+                                                                "Map",
+                                                                "java.util.Map",
+                                                                "Set",
+                                                                "java.util.Set"));
+      for (Map<String, String> modelImport : importsByModel.getOrDefault(supertype,
+                                                                         List.of())) {
+        String qualifiedName = modelImport.get("import");
+        qualifiedNames.put(qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1),
+                           qualifiedName);
+      }
+      Pattern importedNames = Pattern.compile("(?<![\\w.])("
+          + qualifiedNames.keySet()
+            .stream()
+            .map(Pattern::quote)
+            .collect(joining("|"))
+          + ")(?!\\w)");
+      List<Map<String, String>> getters = new ArrayList<>();
+      Set<String> redeclared = redeclaredNames.getOrDefault(supertype,
+                                                            Set.of());
+      for (CodegenProperty property : flattenedVars.getOrDefault(supertype,
+                                                                 supertype.vars)) {
+        if (redeclared.contains(property.baseName)) {
+          continue;
+        }
+        String type = property.datatypeWithEnum;
+        if (property.isEnum && property.enumName != null
+            && !property.vendorExtensions.containsKey("x-codegen-inherited-enum")) {
+          type = type.replaceAll("\\b" + Pattern.quote(property.enumName) + "\\b",
+                                 Matcher.quoteReplacement(supertype.classname + "." + property.enumName));
+        }
+        type = modelNames.matcher(type)
+          .replaceAll(Matcher.quoteReplacement(modelPackage()) + ".$1");
+        getters.add(Map.of("type",
+                           importedNames.matcher(type)
+                             .replaceAll(match -> Matcher.quoteReplacement(qualifiedNames.get(match.group(1)))),
+                           "getter",
+                           property.getter));
+      }
+      supertype.vendorExtensions.put("x-codegen-supertype",
+                                     true);
+      supertype.vendorExtensions.put("x-codegen-supertype-getters",
+                                     getters);
+      CodegenModel parent = parents.get(supertype);
+      if (parent != null) {
+        supertype.vendorExtensions.put("x-codegen-supertype-parent",
+                                       parent.classname);
+      }
+      addInterface(supertype,
+                   "Supertypes." + supertype.classname);
+    }
+
+    for (Map.Entry<CodegenModel, CodegenModel> entry : parents.entrySet()) {
+      CodegenModel model = entry.getKey();
+      List<Map<String, String>> imports = importsByModel.get(model);
+      for (CodegenModel ancestor = entry.getValue(); ancestor != null && imports != null; ancestor =
+          parents.get(ancestor)) {
+        List<Map<String, String>> ancestorImports = importsByModel.get(ancestor);
+        if (ancestorImports != null) {
+          for (Map<String, String> ancestorImport : ancestorImports) {
+            if (!imports.contains(ancestorImport)) {
+              imports.add(ancestorImport);
+            }
+          }
+        }
+      }
+      setVars(model,
+              flattenedVars.get(model));
+      addInterface(model,
+                   "Supertypes." + entry.getValue().classname);
+      model.parent = null;
+      model.parentModel = null;
+    }
+  }
+
+  /**
+   * Returns the properties of a model followed by the inherited ones it does
+   * not redeclare. A property redeclared with another type is recorded for
+   * every ancestor, whose interface then leaves its getter out.
+   */
+  private List<CodegenProperty> flattenVars(CodegenModel pCodegenModel,
+    Map<CodegenModel, CodegenModel> pParents, Map<CodegenModel, List<CodegenProperty>> pFlattenedVars,
+    Map<CodegenModel, Set<String>> pRedeclaredNames) {
+
+    List<CodegenProperty> vars = pFlattenedVars.get(pCodegenModel);
+    if (vars != null) {
+      return vars;
+    }
+    CodegenModel parent = pParents.get(pCodegenModel);
+    if (parent == null) {
+      return pCodegenModel.vars;
+    }
+    vars = new ArrayList<>();
+    for (CodegenProperty inherited : flattenVars(parent,
+                                                 pParents,
+                                                 pFlattenedVars,
+                                                 pRedeclaredNames)) {
+      CodegenProperty property = inherited.clone();
+      if (property.isEnum && property.enumName != null
+          && !property.vendorExtensions.containsKey("x-codegen-inherited-enum")) {
+        qualifyInheritedEnum(property,
+                             property.enumName,
+                             parent.classname);
+      }
+      vars.add(property);
+    }
+    for (CodegenProperty own : pCodegenModel.vars) {
+      for (CodegenProperty inherited : vars) {
+        if (inherited.baseName.equals(own.baseName)
+            && !inherited.datatypeWithEnum.equals(own.datatypeWithEnum)) {
+          LOG.warn("Model '{}' redeclares property '{}' of '{}' with another type. Its getter is left out of the "
+              + "Supertypes interfaces of its ancestors.",
+                   pCodegenModel.classname,
+                   own.baseName,
+                   parent.classname);
+          for (CodegenModel ancestor = parent; ancestor != null; ancestor = pParents.get(ancestor)) {
+            pRedeclaredNames.computeIfAbsent(ancestor,
+                                             key -> new HashSet<>())
+              .add(own.baseName);
+          }
+        }
+      }
+      vars.removeIf(property -> property.baseName.equals(own.baseName));
+      vars.add(own);
+    }
+    pFlattenedVars.put(pCodegenModel,
+                       vars);
+    return vars;
+  }
+
+  private static void qualifyInheritedEnum(CodegenProperty pProperty, String pEnumName, String pOwner) {
+
+    pProperty.vendorExtensions.put("x-codegen-inherited-enum",
+                                   true);
+    pProperty.datatypeWithEnum = pProperty.datatypeWithEnum.replaceAll("\\b" + Pattern.quote(pEnumName) + "\\b",
+                                                                       Matcher.quoteReplacement(pOwner + "."
+                                                                           + pEnumName));
+    if (pProperty.items != null) {
+      pProperty.items = pProperty.items.clone();
+      qualifyInheritedEnum(pProperty.items,
+                           pEnumName,
+                           pOwner);
+    }
+  }
+
+  private static void setVars(CodegenModel pCodegenModel, List<CodegenProperty> pVars) {
+
+    pCodegenModel.vars = pVars;
+    pCodegenModel.allVars = pVars;
+    pCodegenModel.requiredVars = new ArrayList<>();
+    pCodegenModel.optionalVars = new ArrayList<>();
+    for (int i = 0; i < pVars.size(); i++) {
+      CodegenProperty property = pVars.get(i);
+      property.hasMore = i < pVars.size() - 1;
+      (property.required ? pCodegenModel.requiredVars : pCodegenModel.optionalVars).add(property);
+    }
+    pCodegenModel.hasVars = !pVars.isEmpty();
+    pCodegenModel.emptyVars = pVars.isEmpty();
+    pCodegenModel.hasRequired = !pCodegenModel.requiredVars.isEmpty();
+  }
+
+  private static void addInterface(CodegenModel pCodegenModel, String pInterface) {
+
+    List<String> interfaces = pCodegenModel.interfaces == null ? new ArrayList<>()
+        : new ArrayList<>(pCodegenModel.interfaces);
+    if (!interfaces.contains(pInterface)) {
+      interfaces.add(pInterface);
+    }
+    pCodegenModel.interfaces = interfaces;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<CodegenModel> collectModels(Map<String, Object> pObjs) {
+    List<CodegenModel> result = new ArrayList<>();
+    for (Object entry : pObjs.values()) {
+      List<Map<String, Object>> modelMaps =
+          (List<Map<String, Object>>) ((Map<String, Object>) entry).get("models");
+      if (modelMaps != null) {
+        for (Map<String, Object> modelMap : modelMaps) {
+          result.add((CodegenModel) modelMap.get("model"));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Assigns a bit of a {@code long} mask to each property of a model, used by
+   * the sparse fieldset serialization. Models with a parent or with more than
+   * 64 properties are skipped.
+   *
+   * @param pCodegenModel
+   *          the model
+   * @param pEnumClassnames
+   *          the class names of the enum models
+   */
+  private void addFieldMaskVendorExtensions(CodegenModel pCodegenModel,
+    Set<String> pEnumClassnames) {
+
+    if (pCodegenModel.isEnum || pCodegenModel.vendorExtensions.containsKey("x-codegen-isInterface")
+        || pCodegenModel.vars.isEmpty()) {
+      return;
+    }
+    if (pCodegenModel.parent != null) {
+      LOG.warn("Model '{}' extends '{}'. No field mask will be generated for it.",
+               pCodegenModel.classname,
+               pCodegenModel.parent);
+      return;
+    }
+    if (pCodegenModel.vars.size() > Long.SIZE) {
+      LOG.warn("Model '{}' has more than {} properties. No field mask will be generated for it.",
+               pCodegenModel.classname,
+               Long.SIZE);
+      return;
+    }
+    pCodegenModel.vendorExtensions.put("x-codegen-field-mask",
+                                       true);
+    pCodegenModel.vendorExtensions.put("x-codegen-field-count",
+                                       pCodegenModel.vars.size());
+    pCodegenModel.vendorExtensions.put("x-codegen-all-fields",
+                                       pCodegenModel.vars.size() == Long.SIZE ? "-1L"
+                                           : "(1L << " + pCodegenModel.vars.size() + ") - 1");
+    int index = 0;
+    Set<String> constants = new HashSet<>();
+    for (CodegenProperty property : pCodegenModel.vars) {
+      String constant = "FIELD_" + underscore(property.name).toUpperCase(Locale.ROOT);
+      if (!constants.add(constant)) {
+        String unique = constant + "_" + index;
+        for (int suffix = index + 1; !constants.add(unique); suffix++) {
+          unique = constant + "_" + suffix;
+        }
+        LOG.warn("Property '{}' of model '{}' maps to the field mask constant {} of another property. It is named {} instead.",
+                 property.baseName,
+                 pCodegenModel.classname,
+                 constant,
+                 unique);
+        constant = unique;
+      }
+      property.vendorExtensions.put("x-codegen-field-index",
+                                    index++);
+      property.vendorExtensions.put("x-codegen-field-constant",
+                                    constant);
+      property.vendorExtensions.put("x-codegen-to-json",
+                                    JsonExpressions.toJsonValue(property,
+                                                                "this." + property.name,
+                                                                pEnumClassnames));
+    }
+  }
+
   @Override
   public void postProcessModelProperty(CodegenModel pCodegenModel,
     CodegenProperty pCodegenProperty) {
@@ -740,9 +2069,64 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
         itr.remove();
       }
     }
+    // The client does not depend on vertx-web server types.
+    Set<String> serverImports = Set.of(importMapping.get("RoutingContext"),
+                                       importMapping.get("RequestParameters"));
+    List<Map<String, String>> clientImports = new ArrayList<>();
+    for (Map<String, String> itrImport : imports) {
+      if (!serverImports.contains(itrImport.get("import"))) {
+        clientImports.add(itrImport);
+      }
+    }
+    objs.put("clientImports",
+             clientImports);
+    addClientImportFlags(objs);
     return objs;
   }
 
+  /**
+   * Flags the JDK, Vert.x and pagination types the client and the
+   * implementation of the operations use, so each only imports those.
+   *
+   * @param pObjs
+   *          the operations of an API
+   */
+  private static void addClientImportFlags(Map<String, Object> pObjs) {
+    @SuppressWarnings("unchecked")
+    Map<String, Object> operations = (Map<String, Object>) pObjs.get("operations");
+    @SuppressWarnings("unchecked")
+    List<CodegenOperation> operationList = operations == null ? List.of()
+        : (List<CodegenOperation>) operations.get("operation");
+    boolean usesList = false;
+    boolean usesCollectors = false;
+    boolean usesJson = false;
+    boolean usesPageIterator = false;
+    boolean implUsesPagination = false;
+    for (CodegenOperation operation : operationList) {
+      usesPageIterator |= operation.vendorExtensions.containsKey("x-codegen-page-iterator");
+      implUsesPagination |= operation.vendorExtensions.containsKey("x-codegen-cursor-pagination");
+      String decoder = (String) operation.vendorExtensions.get("x-codegen-client-decoder");
+      usesCollectors |= decoder != null && decoder.contains("Collectors.");
+      usesList |= String.valueOf(operation.vendorExtensions.get("x-codegen-client-return-type")).contains("List<")
+          || String.valueOf(operation.vendorExtensions.get("x-codegen-page-params")).contains("List<")
+          || String.valueOf(operation.vendorExtensions.get("x-codegen-page-item-type")).contains("List<");
+      for (CodegenParameter parameter : operation.allParams) {
+        usesList |= parameter.dataType != null && parameter.dataType.contains("List<");
+      }
+      usesJson |= operation.formParams.isEmpty() && operation.bodyParam != null && !operation.bodyParam.isModel;
+    }
+    pObjs.put("clientUsesList",
+              usesList);
+    pObjs.put("clientUsesCollectors",
+              usesCollectors);
+    pObjs.put("clientUsesJson",
+              usesJson);
+    pObjs.put("clientUsesPageIterator",
+              usesPageIterator);
+    pObjs.put("implUsesPagination",
+              implUsesPagination);
+  }
+
   @SuppressWarnings({ "rawtypes" })
   private void processAllOfComposedSchemaModel(ComposedSchema pComposedSchema,
     CodegenModel pCodegenModel) {
@@ -843,6 +2227,40 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
     }
   }
 
+  /**
+   * Declares the binary wire formats next to every JSON response of the
+   * specification the router is built from, so a request asking for one of
+   * them is routed. The request bodies are left alone: the clients always send
+   * JSON, the only format the router validates.
+   *
+   * @param pSpecification
+   *          the specification tree, modified in place
+   */
+  private static void addBinaryResponseMediaTypes(ObjectNode pSpecification) {
+    List<JsonNode> responses = new ArrayList<>();
+    for (JsonNode pathItem : pSpecification.path("paths")) {
+      for (JsonNode operation : pathItem) {
+        responses.add(operation.path("responses"));
+      }
+    }
+    responses.add(pSpecification.path("components").path("responses"));
+    for (JsonNode operationResponses : responses) {
+      for (JsonNode response : operationResponses) {
+        JsonNode content = response.path("content");
+        JsonNode json = content.path(APPLICATION_JSON);
+        if (!json.isObject()) {
+          continue;
+        }
+        for (String mediaType : BINARY_MEDIA_TYPES) {
+          if (!content.has(mediaType)) {
+            ((ObjectNode) content).set(mediaType,
+                                       json.deepCopy());
+          }
+        }
+      }
+    }
+  }
+
   @Override
   public void processOpenAPI(OpenAPI openAPI) {
     String outputFilename = "openapi.yaml";
@@ -850,7 +2268,15 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
       Path outputDir = Path.of(outputFolder).resolve("src/main/resources");
       Files.createDirectories(outputDir);
       Path outputFile = outputDir.resolve(outputFilename);
-      String openapiYaml = Yaml.pretty(openAPI);
+      String openapiYaml;
+      if (Boolean.TRUE.equals(additionalProperties.get(Constants.BINARY_WIRE_FORMATS))) {
+        ObjectNode tree = Yaml.mapper().convertValue(openAPI,
+                                                     ObjectNode.class);
+        addBinaryResponseMediaTypes(tree);
+        openapiYaml = Yaml.pretty().writeValueAsString(tree);
+      } else {
+        openapiYaml = Yaml.pretty(openAPI);
+      }
       Files.write(outputFile.resolve(outputFile),
                   openapiYaml.getBytes(StandardCharsets.UTF_8));
 
@@ -879,6 +2305,10 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
                          Constants.JAVA_EXTENSION);
     apiTemplateFiles.put("api-mock.mustache",
                          Constants.JAVA_EXTENSION);
+    if (convertPropertyToBooleanAndWriteBack(Constants.GENERATE_CLIENT)) {
+      apiTemplateFiles.put("api-client.mustache",
+                           Constants.JAVA_EXTENSION);
+    }
 
     supportingFiles.add(new SupportingFile("openapi-generator-ignore.mustache",
       "",
@@ -887,6 +2317,27 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
       this.getSourceFolder() + File.separator + modelPackage().replace(".",
                                                                        File.separator),
       "package-info.java"));
+    supportingFiles.add(new SupportingFile("mockResponse.mustache",
+      invokerFolder(),
+      "MockResponse.java"));
+    supportingFiles.add(new SupportingFile("mockLatency.mustache",
+      invokerFolder(),
+      "MockLatency.java"));
+
+    additionalProperties.put("linksImport",
+                             importMapping.get(DEFAULT_LINKS_CLASS));
+    additionalProperties.put("metaImport",
+                             importMapping.get(DEFAULT_META_CLASS));
+
+    processRequestLogSamplingOpt();
+    processOperationMetricsOpt();
+    processLauncherOpt();
+    processNativeImageMetadataOpt();
+    processBinaryWireFormatsOpt();
+    processModelFeatureOpts();
+    processLoadTestHarnessOpt();
+    processBatchEndpointOpt();
+    processWarmupOpt();
 
     // add lambda for mustache templates
     additionalProperties.put("lambdaEscapeDoubleQuote",
@@ -911,6 +2362,204 @@ public class VertxOas3MicroserviceProjectGenerator extends AbstractJavaCodegen
 
   }
 
+  private void processModelFeatureOpts() {
+
+    if (convertPropertyToBooleanAndWriteBack(Constants.FLATTEN_ALL_OF)) {
+      supportingFiles.add(new SupportingFile("supertypes.mustache",
+        this.getSourceFolder() + File.separator + modelPackage().replace(".",
+                                                                         File.separator),
+        "Supertypes.java"));
+    }
+    if (convertPropertyToBooleanAndWriteBack(Constants.JMH_BENCHMARKS)) {
+      supportingFiles.add(new SupportingFile("modelSerializationBenchmark.mustache",
+        testFolder + File.separator + modelPackage().replace(".",
+                                                                 File.separator),
+        "ModelSerializationBenchmark.java"));
+    }
+    convertPropertyToBooleanAndWriteBack(Constants.IMMUTABLE_MODELS);
+    convertPropertyToBooleanAndWriteBack(Constants.LAZY_MODEL_VIEWS);
+    convertPropertyToBooleanAndWriteBack(Constants.SPARSE_FIELDSETS);
+    if (convertPropertyToBooleanAndWriteBack(Constants.SQL_ROW_MAPPERS)) {
+      supportingFiles.add(new SupportingFile("rowValues.mustache",
+        invokerFolder(),
+        "RowValues.java"));
+    }
+    if (convertPropertyToBooleanAndWriteBack(Constants.TRACK_DIRTY_FIELDS)) {
+      supportingFiles.add(new SupportingFile("jsonStreams.mustache",
+        invokerFolder(),
+        "JsonStreams.java"));
+    }
+  }
+
+  private void processBinaryWireFormatsOpt() {
+
+    if (!convertPropertyToBooleanAndWriteBack(Constants.BINARY_WIRE_FORMATS)) {
+      return;
+    }
+    supportingFiles.add(new SupportingFile("wireFormat.mustache",
+      invokerFolder(),
+      "WireFormat.java"));
+  }
+
+  private void processLauncherOpt() {
+
+    additionalProperties.putIfAbsent(Constants.GENERATE_LAUNCHER,
+                                     true);
+    if (!convertPropertyToBooleanAndWriteBack(Constants.GENERATE_LAUNCHER)) {
+      return;
+    }
+    supportingFiles.add(new SupportingFile("httpServerVerticle.mustache",
+      invokerFolder(),
+      "HttpServerVerticle.java"));
+    supportingFiles.add(new SupportingFile("serviceLauncher.mustache",
+      invokerFolder(),
+      "ServiceLauncher.java"));
+  }
+
+  private void processNativeImageMetadataOpt() {
+
+    if (!convertPropertyToBooleanAndWriteBack(Constants.NATIVE_IMAGE_METADATA)) {
+      return;
+    }
+    String nativeImageFolder = resourceFolder + File.separator + "META-INF" + File.separator
+        + "native-image" + File.separator + groupId + File.separator + artifactId;
+    supportingFiles.add(new SupportingFile("native-image/reflect-config.mustache",
+      nativeImageFolder,
+      "reflect-config.json"));
+    supportingFiles.add(new SupportingFile("native-image/resource-config.mustache",
+      nativeImageFolder,
+      "resource-config.json"));
+    supportingFiles.add(new SupportingFile("native-image/native-image.mustache",
+      nativeImageFolder,
+      "native-image.properties"));
+  }
+
+  private void processOperationMetricsOpt() {
+
+    if (!convertPropertyToBooleanAndWriteBack(Constants.OPERATION_METRICS)) {
+      return;
+    }
+    addInvokerSupportingFile("latencyHistogram.mustache",
+                             "LatencyHistogram.java");
+    supportingFiles.add(new SupportingFile("operationMetricsRegistry.mustache",
+      invokerFolder(),
+      "OperationMetricsRegistry.java"));
+    supportingFiles.add(new SupportingFile("histogramOperationMetricsRegistry.mustache",
+      invokerFolder(),
+      "HistogramOperationMetricsRegistry.java"));
+    supportingFiles.add(new SupportingFile("operationMetrics.mustache",
+      invokerFolder(),
+      "OperationMetrics.java"));
+  }
+
+  private void processRequestLogSamplingOpt() {
+
+    double sampleRate = 0d;
+    if (additionalProperties.containsKey(Constants.REQUEST_LOG_SAMPLE_RATE)) {
+      String value = additionalProperties.get(Constants.REQUEST_LOG_SAMPLE_RATE).toString();
+      try {
+        sampleRate = Double.parseDouble(value);
+      }
+      catch (NumberFormatException e) {
+        LOG.warn("Invalid value '{}' for option '{}'. Request logging will be disabled.",
+                 value,
+                 Constants.REQUEST_LOG_SAMPLE_RATE);
+      }
+    }
+    if (sampleRate <= 0d) {
+      return;
+    }
+    additionalProperties.put(Constants.REQUEST_LOG_SAMPLE_RATE,
+                             Math.min(sampleRate,
+                                      1d));
+    additionalProperties.put(Constants.REQUEST_LOG_SAMPLING,
+                             true);
+    supportingFiles.add(new SupportingFile("requestLogSampler.mustache",
+      invokerFolder(),
+      "RequestLogSampler.java"));
+  }
+
+  /**
+   * Adds a supporting file to the invoker package, unless an option processed
+   * before has already added it.
+   */
+  private void addInvokerSupportingFile(String pTemplateFile, String pDestinationFilename) {
+
+    if (invokerSupportingFiles.add(pDestinationFilename)) {
+      supportingFiles.add(new SupportingFile(pTemplateFile,
+        invokerFolder(),
+        pDestinationFilename));
+    }
+  }
+
+  private void processLoadTestHarnessOpt() {
+
+    if (!convertPropertyToBooleanAndWriteBack(Constants.LOAD_TEST_HARNESS)) {
+      return;
+    }
+    if (!Boolean.TRUE.equals(additionalProperties.get(Constants.GENERATE_LAUNCHER))) {
+      LOG.warn("Option '{}' requires option '{}'. No load test harness will be generated.",
+               Constants.LOAD_TEST_HARNESS,
+               Constants.GENERATE_LAUNCHER);
+      additionalProperties.put(Constants.LOAD_TEST_HARNESS,
+                               false);
+      return;
+    }
+    addInvokerSupportingFile("latencyHistogram.mustache",
+                             "LatencyHistogram.java");
+    addInvokerSupportingFile("syntheticRequests.mustache",
+                             "SyntheticRequests.java");
+    supportingFiles.add(new SupportingFile("loadGenerator.mustache",
+      testFolder + File.separator + invokerPackage.replace(".",
+                                                           File.separator),
+      "LoadGenerator.java"));
+  }
+
+  private void processBatchEndpointOpt() {
+
+    if (!convertPropertyToBooleanAndWriteBack(Constants.BATCH_ENDPOINT)) {
+      return;
+    }
+    if (!Boolean.TRUE.equals(additionalProperties.get(Constants.GENERATE_LAUNCHER))) {
+      LOG.warn("Option '{}' requires option '{}'. No batch endpoint will be generated.",
+               Constants.BATCH_ENDPOINT,
+               Constants.GENERATE_LAUNCHER);
+      additionalProperties.put(Constants.BATCH_ENDPOINT,
+                               false);
+      return;
+    }
+    supportingFiles.add(new SupportingFile("batchHandler.mustache",
+      invokerFolder(),
+      "BatchHandler.java"));
+  }
+
+  private void processWarmupOpt() {
+
+    if (!convertPropertyToBooleanAndWriteBack(Constants.WARMUP)) {
+      return;
+    }
+    if (!Boolean.TRUE.equals(additionalProperties.get(Constants.GENERATE_LAUNCHER))) {
+      LOG.warn("Option '{}' requires option '{}'. No warm up will be generated.",
+               Constants.WARMUP,
+               Constants.GENERATE_LAUNCHER);
+      additionalProperties.put(Constants.WARMUP,
+                               false);
+      return;
+    }
+    addInvokerSupportingFile("latencyHistogram.mustache",
+                             "LatencyHistogram.java");
+    addInvokerSupportingFile("syntheticRequests.mustache",
+                             "SyntheticRequests.java");
+    supportingFiles.add(new SupportingFile("warmup.mustache",
+      invokerFolder(),
+      "Warmup.java"));
+  }
+
+  private String invokerFolder() {
+    return this.getSourceFolder() + File.separator + invokerPackage.replace(".",
+                                                                            File.separator);
+  }
+
   @SuppressWarnings({ "rawtypes", "unchecked" })
   private void processSimpleTypeSchemaModel(Schema pSchema, CodegenModel pCodegenModel) {
 
@@ -0,0 +1,185 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import static br.com.c8tech.oas3.codegen.vertx.GeneratedProjects.compile;
+import static br.com.c8tech.oas3.codegen.vertx.GeneratedProjects.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.client.WebClient;
+
+/**
+ * Sends a batch to the router of a generated service, running on its mocks,
+ * and checks that every entry went through the route of its operation.
+ */
+class BatchEndpointTest {
+
+  private static final Path WORK_FOLDER = Paths.get("target/batch-endpoint");
+
+  @Test
+  void runsTheEntriesThroughTheRouter() throws Exception {
+    Path project = GeneratedProjects.generate(WORK_FOLDER,
+                                              specification(),
+                                              options(Constants.BATCH_ENDPOINT));
+    Path classes = compile(project);
+
+    JsonArray entries = new JsonArray()
+      .add(new JsonObject().put("operationId",
+                                "getPet").put("params",
+                                              new JsonObject().put("petId",
+                                                                   7)))
+      .add(new JsonObject().put("operationId",
+                                "createPet").put("body",
+                                                 new JsonObject().put("name",
+                                                                      "Tom")))
+      .add(new JsonObject().put("operationId",
+                                "createPet").put("body",
+                                                 new JsonObject().put("id",
+                                                                      3)))
+      .add(new JsonObject().put("operationId",
+                                "getPet").put("params",
+                                              new JsonObject().put("petId",
+                                                                   "seven")))
+      .add(new JsonObject().put("operationId",
+                                "deletePet"));
+
+    ClassLoader previous = Thread.currentThread().getContextClassLoader();
+    Vertx vertx = null;
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { classes.toUri().toURL(),
+        project.resolve("src/main/resources").toUri().toURL() },
+                                                    getClass().getClassLoader())) {
+      // the router factory reads the specification from the class path of the contexts
+      Thread.currentThread().setContextClassLoader(loader);
+      vertx = Vertx.vertx();
+      Method createRouter = loader.loadClass(Constants.DEFAULT_PACKAGE_INVOKER + ".ServiceLauncher")
+        .getMethod("createRouter",
+                   Vertx.class,
+                   JsonObject.class);
+      @SuppressWarnings("unchecked")
+      Router router = await((Future<Router>) createRouter.invoke(null,
+                                                                 vertx,
+                                                                 new JsonObject().put("mock",
+                                                                                      true)));
+      // port 0, so the entries must be sent to the port actually bound
+      HttpServer server = await(vertx.createHttpServer().requestHandler(router).listen(0,
+                                                                                      "127.0.0.1"));
+      WebClient client = WebClient.create(vertx);
+      JsonArray results;
+      try {
+        results = await(client.post(server.actualPort(),
+                                    "127.0.0.1",
+                                    "/batch")
+          .sendJson(entries)).bodyAsJsonArray();
+      }
+      finally {
+        client.close();
+      }
+
+      assertThat(results).hasSize(entries.size());
+      assertThat(results.getJsonObject(0).getInteger("status")).isEqualTo(200);
+      assertThat(results.getJsonObject(0).getJsonObject("body").getString("name")).isEqualTo("Rex");
+      assertThat(results.getJsonObject(1).getInteger("status")).isEqualTo(201);
+      // the body and the parameters are validated as for a direct call
+      assertThat(results.getJsonObject(2).getInteger("status")).isEqualTo(400);
+      assertThat(results.getJsonObject(3).getInteger("status")).isEqualTo(400);
+      assertThat(results.getJsonObject(4).getInteger("status")).isEqualTo(404);
+    }
+    finally {
+      Thread.currentThread().setContextClassLoader(previous);
+      if (vertx != null) {
+        await(vertx.close());
+      }
+    }
+  }
+
+  private static <T> T await(Future<T> pFuture) throws Exception {
+    return pFuture.toCompletionStage().toCompletableFuture().get(30,
+                                                                 TimeUnit.SECONDS);
+  }
+
+  private static ObjectNode specification() {
+    ObjectNode spec = Json.mapper().createObjectNode();
+    spec.put("openapi",
+             "3.0.3");
+    spec.putObject("info").put("title",
+                               "Batch").put("version",
+                                            "1.0.0");
+    ObjectNode pet = spec.putObject("components").putObject("schemas").putObject("Pet");
+    pet.put("type",
+            "object");
+    pet.putArray("required").add("name");
+    ObjectNode properties = pet.putObject("properties");
+    properties.putObject("id").put("type",
+                                   "integer").put("format",
+                                                  "int64");
+    properties.putObject("name").put("type",
+                                     "string");
+
+    ObjectNode paths = spec.putObject("paths");
+    ObjectNode getPet = paths.putObject("/pets/{petId}").putObject("get");
+    getPet.put("operationId",
+               "getPet");
+    getPet.putArray("parameters")
+      .addObject()
+      .put("name",
+           "petId")
+      .put("in",
+           "path")
+      .put("required",
+           true)
+      .putObject("schema")
+      .put("type",
+           "integer");
+    ObjectNode found = getPet.putObject("responses").putObject("200");
+    found.put("description",
+              "The pet");
+    ObjectNode foundContent = found.putObject("content").putObject("application/json");
+    foundContent.putObject("schema").put("$ref",
+                                         "#/components/schemas/Pet");
+    foundContent.putObject("example").put("id",
+                                          7).put("name",
+                                                 "Rex");
+
+    ObjectNode createPet = paths.putObject("/pets").putObject("post");
+    createPet.put("operationId",
+                  "createPet");
+    ObjectNode body = createPet.putObject("requestBody");
+    body.put("required",
+             true);
+    body.putObject("content").putObject("application/json").putObject("schema").put("$ref",
+                                                                                    "#/components/schemas/Pet");
+    ObjectNode created = createPet.putObject("responses").putObject("201");
+    created.put("description",
+                "The created pet");
+    created.putObject("content").putObject("application/json").putObject("schema").put("$ref",
+                                                                                       "#/components/schemas/Pet");
+    return spec;
+  }
+}
@@ -0,0 +1,570 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import static br.com.c8tech.oas3.codegen.vertx.GeneratedProjects.classFiles;
+import static br.com.c8tech.oas3.codegen.vertx.GeneratedProjects.compile;
+import static br.com.c8tech.oas3.codegen.vertx.GeneratedProjects.compileTests;
+import static br.com.c8tech.oas3.codegen.vertx.GeneratedProjects.filesEndingWith;
+import static br.com.c8tech.oas3.codegen.vertx.GeneratedProjects.javaFiles;
+import static br.com.c8tech.oas3.codegen.vertx.GeneratedProjects.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+
+/**
+ * Measures the footprint of the generated code for specifications of growing
+ * size, with the default options and with the options that add code to every
+ * model or operation turned on: the bytes of source, the javac time (in
+ * process, with the vertx-codegen processor generating the converters), the
+ * number of classes and the time to load and initialize all of them. The
+ * variants together turn every option on, so each template is compiled at
+ * least once; the test tree of the generated project (load generator,
+ * benchmarks) is compiled too, but not measured, and the native-image
+ * metadata must only name classes that exist.
+ * <p>
+ * Each measure is checked against {@code generated-code-baseline.properties}.
+ * Sizes and counts must have a baseline and stay within
+ * {@value #SIZE_TOLERANCE} of it. Times are checked only when they have a
+ * baseline, since they depend on the machine, and must stay within
+ * {@value #TIME_TOLERANCE} of it (plus {@value #TIME_SLACK_MILLIS} ms, so very
+ * short times do not make the test flaky). Whatever the baseline, the sizes and
+ * counts must grow linearly with the number of resources. Running with
+ * {@code -DgeneratedCode.updateBaseline=true} writes the measures as the new
+ * baseline.
+ * <p>
+ * The test is tagged {@code benchmark}, which the default build excludes. Run
+ * it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class GeneratedCodeFootprintTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GeneratedCodeFootprintTest.class);
+
+  private static final int[] SIZES = { 5, 25, 100 };
+
+  private static final String[] SIZE_MEASURES = { "sourceFiles", "sourceBytes", "classCount", "classBytes" };
+
+  /**
+   * Not a generator option: makes the list operations of the specification
+   * cursor paginated.
+   */
+  private static final String CURSOR_PAGINATION = "x-pagination";
+
+  /**
+   * The generator options of each variant, keyed by the prefix of its measures.
+   * The specification follows some of them, see
+   * {@link #specification(int, Map)}.
+   */
+  private static final Map<String, Map<String, Object>> VARIANTS = new LinkedHashMap<>();
+
+  static {
+    VARIANTS.put("",
+                 Collections.emptyMap());
+    VARIANTS.put("sparseFieldsets.",
+                 options(Constants.SPARSE_FIELDSETS));
+    VARIANTS.put("trackDirtyFields.",
+                 options(Constants.TRACK_DIRTY_FIELDS));
+    VARIANTS.put("immutableModels.",
+                 options(Constants.IMMUTABLE_MODELS));
+    VARIANTS.put("lazyModelViews.",
+                 options(Constants.LAZY_MODEL_VIEWS));
+    VARIANTS.put("flattenAllOf.",
+                 options(Constants.FLATTEN_ALL_OF));
+    VARIANTS.put("sqlRowMappers.",
+                 options(Constants.SQL_ROW_MAPPERS));
+    VARIANTS.put("binaryWireFormats.",
+                 options(Constants.BINARY_WIRE_FORMATS,
+                         Constants.GENERATE_CLIENT));
+    VARIANTS.put("cursorPagination.",
+                 options(CURSOR_PAGINATION,
+                         Constants.SPARSE_FIELDSETS,
+                         Constants.GENERATE_CLIENT));
+    VARIANTS.put("jmhBenchmarks.",
+                 options(Constants.JMH_BENCHMARKS));
+    VARIANTS.put("nativeImageMetadata.",
+                 options(Constants.NATIVE_IMAGE_METADATA));
+    VARIANTS.put("service.",
+                 options(Constants.GENERATE_CLIENT,
+                         Constants.OPERATION_METRICS,
+                         Constants.BATCH_ENDPOINT,
+                         Constants.WARMUP,
+                         Constants.LOAD_TEST_HARNESS));
+  }
+
+  private static final double SIZE_TOLERANCE = 0.05d;
+
+  private static final double TIME_TOLERANCE = 0.5d;
+
+  private static final long TIME_SLACK_MILLIS = 250L;
+
+  private static final Path BASELINE = Paths.get("src/test/resources/generated-code-baseline.properties");
+
+  private static final String UPDATE_BASELINE = "generatedCode.updateBaseline";
+
+  private static final Path WORK_FOLDER = Paths.get("target/generated-code-footprint");
+
+  private static final Properties baseline = new Properties();
+
+  private static final Map<String, Long> measures = new TreeMap<>();
+
+  @BeforeAll
+  static void loadBaselineAndWarmUp() throws IOException {
+    if (Files.exists(BASELINE)) {
+      try (InputStream in = Files.newInputStream(BASELINE)) {
+        baseline.load(in);
+      }
+    }
+    // the first compilation also loads and warms javac up, so it is not measured
+    compile(generate("warmup",
+                     1,
+                     Collections.emptyMap()));
+  }
+
+  @AfterAll
+  static void writeBaseline() throws IOException {
+    if (!Boolean.getBoolean(UPDATE_BASELINE)) {
+      return;
+    }
+    Properties updated = new Properties();
+    measures.forEach((key, value) -> updated.setProperty(key,
+                                                         String.valueOf(value)));
+    try (OutputStream out = Files.newOutputStream(BASELINE)) {
+      updated.store(out,
+                    "Footprint of the generated code, written by GeneratedCodeFootprintTest");
+    }
+  }
+
+  @TestFactory
+  Stream<DynamicTest> generatedCodeStaysWithinBaseline() {
+    return VARIANTS.entrySet()
+      .stream()
+      .flatMap(variant -> Stream.concat(Arrays.stream(SIZES)
+        .mapToObj(size -> dynamicTest(variant.getKey() + "resources." + size,
+                                      () -> measure(variant.getKey(),
+                                                    size,
+                                                    variant.getValue()))),
+                                        Stream.of(dynamicTest(variant.getKey() + "growth",
+                                                              () -> checkGrowth(variant.getKey())))));
+  }
+
+  private void measure(String pVariant, int pResources, Map<String, Object> pOptions) throws Exception {
+    Path project = generate(pVariant.isEmpty() ? "default" : pVariant.substring(0,
+                                                                                pVariant.length() - 1),
+                            pResources,
+                            pOptions);
+    List<Path> sources = javaFiles(project.resolve("src/main/java"));
+    long sourceBytes = 0;
+    for (Path source : sources) {
+      sourceBytes += Files.size(source);
+    }
+
+    long start = System.nanoTime();
+    Path classes = compile(project);
+    long compileMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    List<String> classNames = new ArrayList<>();
+    long classBytes = 0;
+    for (Path classFile : classFiles(classes)) {
+      classBytes += Files.size(classFile);
+      if (classFile.getFileName().toString().equals("package-info.class")) {
+        continue;
+      }
+      String name = classes.relativize(classFile).toString();
+      classNames.add(name.substring(0,
+                                    name.length() - ".class".length())
+        .replace(classFile.getFileSystem().getSeparator(),
+                 "."));
+    }
+
+    start = System.nanoTime();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] { classes.toUri().toURL() },
+                                                    getClass().getClassLoader())) {
+      for (String className : classNames) {
+        Class.forName(className,
+                      true,
+                      loader);
+      }
+    }
+    long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    compileTests(project,
+                 classes);
+    checkNativeImageMetadata(project,
+                             classes);
+
+    String prefix = pVariant + "resources." + pResources + ".";
+    check(prefix + "sourceFiles",
+          sources.size(),
+          false);
+    check(prefix + "sourceBytes",
+          sourceBytes,
+          false);
+    check(prefix + "classCount",
+          classNames.size(),
+          false);
+    check(prefix + "classBytes",
+          classBytes,
+          false);
+    check(prefix + "compileMillis",
+          compileMillis,
+          true);
+    check(prefix + "loadMillis",
+          loadMillis,
+          true);
+  }
+
+  private static void check(String pKey, long pMeasure, boolean pTime) {
+    measures.put(pKey,
+                 pMeasure);
+    String expected = baseline.getProperty(pKey);
+    if (expected == null) {
+      LOG.info("{} = {} (no baseline)",
+               pKey,
+               pMeasure);
+      if (!pTime && !Boolean.getBoolean(UPDATE_BASELINE)) {
+        throw new AssertionError(String.format(Locale.ROOT,
+                                               "%s = %d has no baseline, record it with -D%s=true",
+                                               pKey,
+                                               pMeasure,
+                                               UPDATE_BASELINE));
+      }
+      return;
+    }
+    long limit = pTime
+        ? Math.round(Long.parseLong(expected) * (1d + TIME_TOLERANCE)) + TIME_SLACK_MILLIS
+        : Math.round(Long.parseLong(expected) * (1d + SIZE_TOLERANCE));
+    LOG.info("{} = {} (baseline {}, limit {})",
+             pKey,
+             pMeasure,
+             expected,
+             limit);
+    if (!Boolean.getBoolean(UPDATE_BASELINE)) {
+      assertThat(pMeasure).as("%s regressed past the baseline %s (limit %d)",
+                              pKey,
+                              expected,
+                              limit)
+        .isLessThanOrEqualTo(limit);
+    }
+  }
+
+  /**
+   * Checks that the code added per resource between the two largest sizes is
+   * not larger than the one added between the two smallest sizes, so the
+   * generated code grows linearly with the specification.
+   */
+  private static void checkGrowth(String pVariant) {
+    for (String measure : SIZE_MEASURES) {
+      long[] values = new long[SIZES.length];
+      for (int i = 0; i < SIZES.length; i++) {
+        Long value = measures.get(pVariant + "resources." + SIZES[i] + "." + measure);
+        assertThat(value).as("%sresources.%d.%s was measured",
+                             pVariant,
+                             SIZES[i],
+                             measure)
+          .isNotNull();
+        values[i] = value;
+      }
+      int last = SIZES.length - 1;
+      double small = (double) (values[1] - values[0]) / (SIZES[1] - SIZES[0]);
+      double large = (double) (values[last] - values[last - 1]) / (SIZES[last] - SIZES[last - 1]);
+      assertThat(large).as("%s%s per resource between %d and %d resources, against %.1f between %d and %d",
+                           pVariant,
+                           measure,
+                           SIZES[last - 1],
+                           SIZES[last],
+                           small,
+                           SIZES[0],
+                           SIZES[1])
+        .isLessThanOrEqualTo(small * (1d + SIZE_TOLERANCE));
+    }
+  }
+
+  /**
+   * Generates the project of a specification with the given number of
+   * resources, each one with a model and five CRUD operations.
+   */
+  private static Path generate(String pVariant, int pResources, Map<String, Object> pOptions)
+    throws IOException {
+    return GeneratedProjects.generate(WORK_FOLDER.resolve(pVariant).resolve(String.valueOf(pResources)),
+                                      specification(pResources,
+                                                    pOptions),
+                                      pOptions);
+  }
+
+  /**
+   * Checks that the native-image metadata of the generated project, when it
+   * has some, is valid JSON and that every class it registers for reflection
+   * was generated.
+   */
+  private static void checkNativeImageMetadata(Path pProject, Path pClasses) throws IOException {
+    Path metadata = pProject.resolve("src/main/resources/META-INF/native-image");
+    if (!Files.isDirectory(metadata)) {
+      return;
+    }
+    for (Path file : filesEndingWith(metadata,
+                                     ".json")) {
+      JsonNode config = Json.mapper().readTree(file.toFile());
+      if (!file.getFileName().toString().equals("reflect-config.json")) {
+        continue;
+      }
+      try (URLClassLoader loader = new URLClassLoader(new URL[] { pClasses.toUri().toURL() },
+                                                      GeneratedCodeFootprintTest.class.getClassLoader())) {
+        for (JsonNode entry : config) {
+          String className = entry.path("name").asText();
+          try {
+            Class.forName(className,
+                          false,
+                          loader);
+          }
+          catch (ClassNotFoundException e) {
+            throw new AssertionError(file + " registers the missing class " + className,
+                                     e);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds a specification with the given number of resources. With the
+   * {@value #CURSOR_PAGINATION} option the list operations return a page
+   * envelope and take 'cursor' and 'fields' parameters, with the flattenAllOf
+   * option the models extend a common entity and with the sqlRowMappers option
+   * they are persistent.
+   */
+  private static ObjectNode specification(int pResources, Map<String, Object> pOptions) {
+    boolean paginated = pOptions.containsKey(CURSOR_PAGINATION);
+    boolean extended = pOptions.containsKey(Constants.FLATTEN_ALL_OF);
+    boolean persistent = pOptions.containsKey(Constants.SQL_ROW_MAPPERS);
+    ObjectNode spec = Json.mapper().createObjectNode();
+    spec.put("openapi",
+             "3.0.3");
+    spec.putObject("info").put("title",
+                               "Footprint").put("version",
+                                                "1.0.0");
+    ObjectNode paths = spec.putObject("paths");
+    ObjectNode schemas = spec.putObject("components").putObject("schemas");
+    if (extended) {
+      schemas.set("Entity",
+                  entity());
+    }
+    for (int i = 1; i <= pResources; i++) {
+      String model = "Resource" + i;
+      String ref = "#/components/schemas/" + model;
+      ObjectNode schema = model();
+      if (persistent) {
+        schema.put("x-persistence",
+                   true);
+      }
+      if (extended) {
+        ObjectNode composed = Json.mapper().createObjectNode();
+        composed.putArray("allOf").add(Json.mapper().createObjectNode().put("$ref",
+                                                                            "#/components/schemas/Entity"))
+          .add(schema);
+        schema = composed;
+      }
+      schemas.set(model,
+                  schema);
+
+      ObjectNode collection = paths.putObject("/resources" + i);
+      ObjectNode list = operation(collection.putObject("get"),
+                                  "list" + model + "s");
+      list.putArray("parameters")
+        .add(parameter("limit",
+                       "query",
+                       "integer"))
+        .add(parameter("offset",
+                       "query",
+                       "integer"));
+      if (paginated) {
+        list.put("x-pagination",
+                 "cursor");
+        ((ArrayNode) list.get("parameters"))
+          .add(parameter("cursor",
+                         "query",
+                         "string"))
+          .add(parameter("fields",
+                         "query",
+                         "string"));
+        ObjectNode page = schemas.putObject(model + "Page");
+        page.put("type",
+                 "object");
+        page.putObject("properties").putObject("data").put("type",
+                                                          "array").putObject("items").put("$ref",
+                                                                                          ref);
+        response(list,
+                 "200").putObject("schema").put("$ref",
+                                                "#/components/schemas/" + model + "Page");
+      } else {
+        response(list,
+                 "200").putObject("schema").put("type",
+                                                "array").putObject("items").put("$ref",
+                                                                               ref);
+      }
+      ObjectNode create = operation(collection.putObject("post"),
+                                    "create" + model);
+      body(create,
+           ref);
+      response(create,
+               "201").putObject("schema").put("$ref",
+                                              ref);
+
+      ObjectNode item = paths.putObject("/resources" + i + "/{id}");
+      item.putArray("parameters").add(parameter("id",
+                                                "path",
+                                                "string")
+        .put("required",
+             true));
+      response(operation(item.putObject("get"),
+                         "get" + model),
+               "200").putObject("schema").put("$ref",
+                                              ref);
+      ObjectNode update = operation(item.putObject("put"),
+                                    "update" + model);
+      body(update,
+           ref);
+      response(update,
+               "200").putObject("schema").put("$ref",
+                                              ref);
+      operation(item.putObject("delete"),
+                "delete" + model).putObject("responses").putObject("204").put("description",
+                                                                              "Deleted");
+    }
+    return spec;
+  }
+
+  private static ObjectNode model() {
+    ObjectNode model = Json.mapper().createObjectNode();
+    model.put("type",
+              "object");
+    model.putArray("required").add("id").add("name");
+    ObjectNode properties = model.putObject("properties");
+    properties.putObject("id").put("type",
+                                   "string").put("format",
+                                                 "uuid");
+    properties.putObject("name").put("type",
+                                     "string").put("maxLength",
+                                                   64);
+    properties.putObject("description").put("type",
+                                            "string");
+    properties.putObject("count").put("type",
+                                      "integer").put("format",
+                                                     "int32");
+    properties.putObject("price").put("type",
+                                      "number").put("format",
+                                                    "double");
+    properties.putObject("active").put("type",
+                                       "boolean");
+    properties.putObject("createdAt").put("type",
+                                          "string").put("format",
+                                                        "date-time");
+    ObjectNode tags = properties.putObject("tags");
+    tags.put("type",
+             "array");
+    tags.putObject("items").put("type",
+                                "string");
+    ObjectNode status = properties.putObject("status");
+    status.put("type",
+               "string");
+    status.putArray("enum").add("ACTIVE").add("INACTIVE");
+    return model;
+  }
+
+  /**
+   * The entity extended by every model in the flattenAllOf variant.
+   */
+  private static ObjectNode entity() {
+    ObjectNode entity = Json.mapper().createObjectNode();
+    entity.put("type",
+               "object");
+    ObjectNode properties = entity.putObject("properties");
+    properties.putObject("version").put("type",
+                                        "integer").put("format",
+                                                       "int64");
+    properties.putObject("updatedAt").put("type",
+                                          "string").put("format",
+                                                        "date-time");
+    return entity;
+  }
+
+  private static ObjectNode operation(ObjectNode pOperation, String pOperationId) {
+    pOperation.put("operationId",
+                   pOperationId);
+    return pOperation;
+  }
+
+  private static ObjectNode parameter(String pName, String pIn, String pType) {
+    ObjectNode parameter = Json.mapper().createObjectNode();
+    parameter.put("name",
+                  pName);
+    parameter.put("in",
+                  pIn);
+    parameter.putObject("schema").put("type",
+                                      pType);
+    return parameter;
+  }
+
+  private static void body(ObjectNode pOperation, String pRef) {
+    ObjectNode body = pOperation.putObject("requestBody");
+    body.put("required",
+             true);
+    body.putObject("content").putObject("application/json").putObject("schema").put("$ref",
+                                                                                    pRef);
+  }
+
+  /**
+   * Adds a JSON response to the operation and returns its media type.
+   */
+  private static ObjectNode response(ObjectNode pOperation, String pStatus) {
+    ObjectNode responses = pOperation.has("responses") ? (ObjectNode) pOperation.get("responses")
+        : pOperation.putObject("responses");
+    ObjectNode response = responses.putObject(pStatus);
+    response.put("description",
+                 "Status " + pStatus);
+    return response.putObject("content").putObject("application/json");
+  }
+
+}
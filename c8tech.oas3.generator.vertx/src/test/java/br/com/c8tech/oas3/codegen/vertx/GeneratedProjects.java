@@ -0,0 +1,187 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.config.CodegenConfigurator;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.v3.core.util.Json;
+import io.vertx.codegen.CodeGenProcessor;
+
+/**
+ * Generates projects from specifications built by the tests and compiles
+ * them in process, against the test classpath.
+ */
+final class GeneratedProjects {
+
+  static Map<String, Object> options(String... pOptions) {
+    Map<String, Object> options = new LinkedHashMap<>();
+    for (String option : pOptions) {
+      options.put(option,
+                  Boolean.TRUE);
+    }
+    return options;
+  }
+
+  /**
+   * Generates the project of a specification in the 'project' sub folder of
+   * the given one, which is emptied first.
+   */
+  static Path generate(Path pFolder, ObjectNode pSpecification, Map<String, Object> pOptions) throws IOException {
+    deleteRecursively(pFolder);
+    Files.createDirectories(pFolder);
+    Path spec = pFolder.resolve("openapi.json");
+    Json.mapper().writeValue(spec.toFile(),
+                             pSpecification);
+
+    Path project = pFolder.resolve("project");
+    CodegenConfigurator configurator = new CodegenConfigurator()
+      .setGeneratorName(VertxOas3MicroserviceProjectGenerator.GENERATOR_NAME)
+      .setModelPackage("io.footprint.model")
+      .setInputSpec(spec.toString())
+      .setOutputDir(project.toString());
+    configurator.addTypeMapping("ParentHandlerClass",
+                                "AbstractOperationHandler");
+    configurator.addImportMapping("AbstractOperationHandler",
+                                  AbstractOperationHandler.class.getName());
+    configurator.addImportMapping("Links",
+                                  Links.class.getName());
+    configurator.addImportMapping("Meta",
+                                  Meta.class.getName());
+    pOptions.forEach(configurator::addAdditionalProperty);
+    new DefaultGenerator().opts(configurator.toClientOptInput()).generate();
+    return project;
+  }
+
+  static Path compile(Path pProject) throws IOException {
+    Path classes = pProject.resolve("target/classes");
+    compile(pProject,
+            javaFiles(pProject.resolve("src/main/java")),
+            classes,
+            System.getProperty("java.class.path"),
+            List.of(new CodeGenProcessor()));
+    return classes;
+  }
+
+  /**
+   * Compiles the test tree of the generated project, when it has one, against
+   * its classes.
+   */
+  static void compileTests(Path pProject, Path pClasses) throws IOException {
+    Path tests = pProject.resolve("src/test/java");
+    if (!Files.isDirectory(tests)) {
+      return;
+    }
+    compile(pProject,
+            javaFiles(tests),
+            pProject.resolve("target/test-classes"),
+            pClasses + File.pathSeparator + System.getProperty("java.class.path"),
+            List.of());
+  }
+
+  private static void compile(Path pProject, List<Path> pSources, Path pOutput, String pClasspath,
+    List<? extends Processor> pProcessors) throws IOException {
+    Path generatedSources = pOutput.resolveSibling("generated-sources")
+      .resolve(pOutput.getFileName().toString());
+    Files.createDirectories(pOutput);
+    Files.createDirectories(generatedSources);
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
+                                                                               Locale.ROOT,
+                                                                               StandardCharsets.UTF_8)) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(pSources);
+      List<String> options = Arrays.asList("-d",
+                                           pOutput.toString(),
+                                           "-s",
+                                           generatedSources.toString(),
+                                           "-classpath",
+                                           pClasspath,
+                                           "-encoding",
+                                           "UTF-8",
+                                           "-nowarn");
+      JavaCompiler.CompilationTask task = compiler.getTask(null,
+                                                           fileManager,
+                                                           diagnostics,
+                                                           options,
+                                                           null,
+                                                           units);
+      task.setProcessors(pProcessors);
+      boolean compiled = task.call();
+      assertThat(compiled).as("generated code of %s compiles:%n%s",
+                              pProject,
+                              diagnostics.getDiagnostics()
+                                .stream()
+                                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                                .limit(20)
+                                .map(Object::toString)
+                                .collect(Collectors.joining(System.lineSeparator())))
+        .isTrue();
+    }
+  }
+
+  static List<Path> javaFiles(Path pFolder) throws IOException {
+    return filesEndingWith(pFolder,
+                           ".java");
+  }
+
+  static List<Path> classFiles(Path pFolder) throws IOException {
+    return filesEndingWith(pFolder,
+                           ".class");
+  }
+
+  static List<Path> filesEndingWith(Path pFolder, String pSuffix) throws IOException {
+    try (Stream<Path> files = Files.walk(pFolder)) {
+      return files.filter(file -> file.toString().endsWith(pSuffix)).sorted().collect(Collectors.toList());
+    }
+  }
+
+  private static void deleteRecursively(Path pFolder) throws IOException {
+    if (!Files.exists(pFolder)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(pFolder)) {
+      for (Path file : files.sorted((a, b) -> b.compareTo(a)).collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  private GeneratedProjects() {
+  }
+}
@@ -0,0 +1,27 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import io.vertx.core.json.JsonObject;
+
+public class Meta {
+
+  private final JsonObject json;
+
+  public Meta(JsonObject pJson) {
+    this.json = pJson;
+  }
+
+  public JsonObject toJson() {
+    return json;
+  }
+}
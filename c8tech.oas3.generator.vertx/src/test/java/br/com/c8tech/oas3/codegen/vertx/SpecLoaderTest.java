@@ -0,0 +1,170 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.swagger.v3.core.util.Json;
+
+class SpecLoaderTest {
+
+  @TempDir
+  Path folder;
+
+  @Test
+  void bundlesExternalReferencesIntoComponents() throws IOException {
+    Path spec = writeSpec();
+    SpecLoader loader = new SpecLoader(folder.resolve("cache"),
+                                       2);
+
+    JsonNode bundle = Json.mapper().readTree(loader.bundle(spec.toString()).toFile());
+
+    List<String> refs = new ArrayList<>();
+    collectRefs(bundle,
+                refs);
+    assertThat(refs).isNotEmpty().allMatch(ref -> ref.startsWith("#/components/"));
+    JsonNode schemas = bundle.path("components").path("schemas");
+    assertThat(schemas.has("Pet")).isTrue();
+    assertThat(schemas.has("Owner")).isTrue();
+    assertThat(schemas.path("Error").has("$ref")).isFalse();
+    assertThat(schemas.has("Error2")).isFalse();
+    assertThat(schemas.path("Pet").path("properties").path("owner").path("$ref").asText())
+      .isEqualTo("#/components/schemas/Owner");
+    // a property named after a components section is still a schema
+    assertThat(schemas.path("Pet").path("properties").path("links").path("$ref").asText())
+      .isEqualTo("#/components/schemas/Link");
+    assertThat(bundle.path("components").has("links")).isFalse();
+    assertThat(bundle.path("components").path("parameters").has("limit")).isTrue();
+  }
+
+  @Test
+  void reusesCachedDocumentsAndBundle() throws IOException {
+    Path spec = writeSpec();
+    SpecLoader loader = new SpecLoader(folder.resolve("cache"));
+
+    Path first = loader.bundle(spec.toString());
+    long cached = countFiles(folder.resolve("cache"));
+    Path second = loader.bundle(spec.toString());
+
+    assertThat(second).isEqualTo(first);
+    assertThat(countFiles(folder.resolve("cache"))).isEqualTo(cached);
+
+    Files.write(folder.resolve("schemas/pet.yaml"),
+                Files.readAllLines(folder.resolve("schemas/pet.yaml"))
+                  .stream()
+                  .map(line -> line.replace("type: string",
+                                            "type: string\n      minLength: 1"))
+                  .collect(Collectors.toList()));
+    assertThat(loader.bundle(spec.toString())).isNotEqualTo(first);
+  }
+
+  private Path writeSpec() throws IOException {
+    Files.createDirectories(folder.resolve("schemas"));
+    Files.write(folder.resolve("schemas/pet.yaml"),
+                List.of("Pet:",
+                        "  type: object",
+                        "  properties:",
+                        "    name:",
+                        "      type: string",
+                        "    owner:",
+                        "      $ref: '#/Owner'",
+                        "    links:",
+                        "      $ref: '#/Link'",
+                        "Link:",
+                        "  type: object",
+                        "  properties:",
+                        "    href:",
+                        "      type: string",
+                        "Owner:",
+                        "  type: object",
+                        "  properties:",
+                        "    pets:",
+                        "      type: array",
+                        "      items:",
+                        "        $ref: '#/Pet'"));
+    Files.write(folder.resolve("common.yaml"),
+                List.of("components:",
+                        "  schemas:",
+                        "    Error:",
+                        "      type: object",
+                        "      properties:",
+                        "        message:",
+                        "          type: string",
+                        "  parameters:",
+                        "    limit:",
+                        "      name: limit",
+                        "      in: query",
+                        "      schema:",
+                        "        type: integer"));
+    Path spec = folder.resolve("openapi.yaml");
+    Files.write(spec,
+                List.of("openapi: 3.0.3",
+                        "info:",
+                        "  title: Pets",
+                        "  version: '1'",
+                        "paths:",
+                        "  /pets:",
+                        "    get:",
+                        "      operationId: listPets",
+                        "      parameters:",
+                        "        - $ref: 'common.yaml#/components/parameters/limit'",
+                        "      responses:",
+                        "        '200':",
+                        "          description: The pets",
+                        "          content:",
+                        "            application/json:",
+                        "              schema:",
+                        "                type: array",
+                        "                items:",
+                        "                  $ref: 'schemas/pet.yaml#/Pet'",
+                        "        default:",
+                        "          description: An error",
+                        "          content:",
+                        "            application/json:",
+                        "              schema:",
+                        "                $ref: 'common.yaml#/components/schemas/Error'",
+                        "components:",
+                        "  schemas:",
+                        "    Error:",
+                        "      $ref: 'common.yaml#/components/schemas/Error'"));
+    return spec;
+  }
+
+  private static void collectRefs(JsonNode pNode, List<String> pRefs) {
+    if (pNode.has("$ref")) {
+      pRefs.add(pNode.get("$ref").asText());
+    }
+    for (JsonNode child : pNode) {
+      collectRefs(child,
+                  pRefs);
+    }
+  }
+
+  private static long countFiles(Path pFolder) throws IOException {
+    try (Stream<Path> files = Files.list(pFolder)) {
+      return files.count();
+    }
+  }
+}
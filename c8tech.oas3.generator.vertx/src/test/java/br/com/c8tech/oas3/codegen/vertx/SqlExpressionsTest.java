@@ -0,0 +1,45 @@
+/*
+ * ============================================================================
+ *  Copyright ©  2020,    Cristiano V. Gavião
+ *
+ *  All rights reserved.
+ *  This program and the accompanying materials are made available under
+ *  the terms of the Eclipse Public License v1.0 which accompanies this
+ *  distribution and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * ============================================================================
+ */
+package br.com.c8tech.oas3.codegen.vertx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SqlExpressionsTest {
+
+  @Test
+  void quotesReservedWordsOnly() {
+    assertThat(SqlExpressions.identifier("user",
+                                         '"')).isEqualTo("\"user\"");
+    assertThat(SqlExpressions.identifier("Order",
+                                         '`')).isEqualTo("`Order`");
+    assertThat(SqlExpressions.identifier("pet_owner",
+                                         '"')).isEqualTo("pet_owner");
+  }
+
+  @Test
+  void quotesEachPartOfQualifiedNames() {
+    assertThat(SqlExpressions.identifier("app.group",
+                                         '"')).isEqualTo("app.\"group\"");
+    assertThat(SqlExpressions.identifier("app.\"Group\"",
+                                         '"')).isEqualTo("app.\"Group\"");
+  }
+
+  @Test
+  void quotesNamesThatCannotBeUnquoted() {
+    assertThat(SqlExpressions.identifier("first name",
+                                         '"')).isEqualTo("\"first name\"");
+    assertThat(SqlExpressions.identifier("a\"b",
+                                         '"')).isEqualTo("\"a\"\"b\"");
+  }
+}